@@ -1,5 +1,6 @@
 plugins {
     id("java")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.illumine.woodcutter"
@@ -28,6 +29,21 @@ dependencies {
     compileOnly("net.runelite:client:$apiVersion")
     compileOnly("com.tonic:base-api:$apiVersion")
     compileOnly("com.tonic:api:$apiVersion")
+
+    // Benchmarks run outside the client, so the API classes must be on their runtime classpath
+    jmh("net.runelite:client:$apiVersion")
+    jmh("com.tonic:base-api:$apiVersion")
+    jmh("com.tonic:api:$apiVersion")
+}
+
+// ./gradlew jmh — IllumineReach over synthetic grids; gc profiler adds bytes/op (gc.alloc.rate.norm)
+jmh {
+    benchmarkMode.set(listOf("avgt"))
+    timeUnit.set("ns")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.set(listOf("gc"))
 }
 
 tasks.withType<JavaCompile>().configureEach {
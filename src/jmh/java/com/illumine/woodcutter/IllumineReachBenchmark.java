@@ -0,0 +1,192 @@
+package com.illumine.woodcutter;
+
+import net.runelite.api.CollisionDataFlag;
+import net.runelite.api.coords.WorldPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IllumineReach} over synthetic collision grids, fed through a {@link CollisionSource} so no client is needed.
+ * Run with {@code ./gradlew jmh}; the gc profiler configured in the build reports bytes/op as gc.alloc.rate.norm.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IllumineReachBenchmark {
+    private static final int BASE_X = 3200 - ReachEngine.PADDING;
+    private static final int BASE_Y = 3200 - ReachEngine.PADDING;
+    private static final int CENTER = ReachEngine.SIZE / 2;
+
+    public enum Scenario {
+        /** No collision at all; the search front grows as a diamond. */
+        OPEN_FIELD,
+        /** Serpentine corridors, so the path length is many times the straight-line distance. */
+        MAZE,
+        /** Target inside a pen of edge walls whose gate faces away from the player. */
+        WALLED,
+        /** Target inside a pen with no gate; rejected by the region labels before any search. */
+        UNREACHABLE
+    }
+
+    /** One target searched with each {@link SearchMode}. */
+    @State(Scope.Thread)
+    public static class SingleTarget {
+        @Param
+        public Scenario scenario;
+
+        @Param
+        public SearchMode mode;
+
+        private CollisionSource source;
+        private WorldPoint from;
+        private IllumineReach.TargetInfo target;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Grid grid = new Grid(scenario);
+            source = grid.source;
+            from = grid.from;
+            target = grid.target(mode);
+
+            // Label the regions up front so the first measured call does not pay for it
+            IllumineReach.mayReach(source, from, target);
+        }
+    }
+
+    /**
+     * Several targets in one flood. {@code findApproaches} always floods breadth-first whatever the targets' modes,
+     * so this state has no mode parameter.
+     */
+    @State(Scope.Thread)
+    public static class MultiTarget {
+        @Param
+        public Scenario scenario;
+
+        private CollisionSource source;
+        private WorldPoint from;
+        private List<IllumineReach.TargetInfo> targets;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Grid grid = new Grid(scenario);
+            source = grid.source;
+            from = grid.from;
+
+            // A spread of extra trees around the scenario's target
+            targets = new ArrayList<>();
+            targets.add(grid.target(SearchMode.BFS));
+            for (int i = 1; i <= 7; i++) {
+                int x = BASE_X + CENTER - 60 + 15 * i;
+                int y = BASE_Y + CENTER + ((i & 1) == 0 ? 45 : -45);
+                targets.add(new IllumineReach.TargetInfo(x, y, 0, 1, 1, false, 0));
+            }
+
+            IllumineReach.mayReach(source, from, targets.get(0));
+        }
+    }
+
+    /** Collision grid, start tile and destination for one scenario. */
+    private static final class Grid {
+        final CollisionSource source;
+        final WorldPoint from;
+        private final int destX;
+        private final int destY;
+
+        Grid(Scenario scenario) {
+            int[] flags = new int[ReachEngine.TILES];
+            int fromX = CENTER;
+            int fromY = CENTER;
+            switch (scenario) {
+                case MAZE:
+                    buildMaze(flags, CENTER - 40, CENTER - 40, 80);
+                    fromX = CENTER - 38;
+                    destX = CENTER + 37;
+                    destY = CENTER;
+                    break;
+                case WALLED:
+                    destX = CENTER + 30;
+                    destY = CENTER;
+                    buildPen(flags, destX - 4, destY - 4, 11, true);
+                    break;
+                case UNREACHABLE:
+                    destX = CENTER + 30;
+                    destY = CENTER;
+                    buildPen(flags, destX - 4, destY - 4, 11, false);
+                    break;
+                case OPEN_FIELD:
+                default:
+                    destX = CENTER + 50;
+                    destY = CENTER + 30;
+                    break;
+            }
+            source = CollisionSource.of(CollisionSnapshot.of(BASE_X, BASE_Y, flags));
+            from = new WorldPoint(BASE_X + fromX, BASE_Y + fromY, 0);
+        }
+
+        IllumineReach.TargetInfo target(SearchMode mode) {
+            return new IllumineReach.TargetInfo(BASE_X + destX, BASE_Y + destY, 0, 2, 2, false, 0, mode);
+        }
+    }
+
+    @Benchmark
+    public IllumineReach.Approach approach(SingleTarget state) {
+        return IllumineReach.approach(state.source, state.from, state.target);
+    }
+
+    @Benchmark
+    public IllumineReach.Approach[] findApproaches(MultiTarget state) {
+        return IllumineReach.findApproaches(state.source, state.from, state.targets);
+    }
+
+    /** Fully blocked border with walls every fourth column, gaps alternating between the top and bottom rows. */
+    private static void buildMaze(int[] flags, int x0, int y0, int size) {
+        for (int i = 0; i < size; i++) {
+            block(flags, x0 + i, y0);
+            block(flags, x0 + i, y0 + size - 1);
+            block(flags, x0, y0 + i);
+            block(flags, x0 + size - 1, y0 + i);
+        }
+        boolean gapTop = true;
+        for (int x = x0 + 4; x < x0 + size - 1; x += 4) {
+            int gapY = gapTop ? y0 + size - 2 : y0 + 1;
+            for (int y = y0 + 1; y < y0 + size - 1; y++) {
+                if (y != gapY) block(flags, x, y);
+            }
+            gapTop = !gapTop;
+        }
+    }
+
+    /** Square pen of edge walls (flags on both sides of each wall); the gate, if any, is on the east side. */
+    private static void buildPen(int[] flags, int x0, int y0, int size, boolean gate) {
+        int x1 = x0 + size - 1;
+        int y1 = y0 + size - 1;
+        int gateY = y0 + size / 2;
+        for (int i = 0; i < size; i++) {
+            wall(flags, x0, y0 + i, CollisionDataFlag.BLOCK_MOVEMENT_WEST, x0 - 1, y0 + i, CollisionDataFlag.BLOCK_MOVEMENT_EAST);
+            if (!gate || y0 + i != gateY) {
+                wall(flags, x1, y0 + i, CollisionDataFlag.BLOCK_MOVEMENT_EAST, x1 + 1, y0 + i, CollisionDataFlag.BLOCK_MOVEMENT_WEST);
+            }
+            wall(flags, x0 + i, y0, CollisionDataFlag.BLOCK_MOVEMENT_SOUTH, x0 + i, y0 - 1, CollisionDataFlag.BLOCK_MOVEMENT_NORTH);
+            wall(flags, x0 + i, y1, CollisionDataFlag.BLOCK_MOVEMENT_NORTH, x0 + i, y1 + 1, CollisionDataFlag.BLOCK_MOVEMENT_SOUTH);
+        }
+    }
+
+    private static void wall(int[] flags, int insideX, int insideY, int insideFlag, int outsideX, int outsideY, int outsideFlag) {
+        flags[ReachEngine.index(insideX, insideY, 0)] |= insideFlag;
+        flags[ReachEngine.index(outsideX, outsideY, 0)] |= outsideFlag;
+    }
+
+    private static void block(int[] flags, int gridX, int gridY) {
+        flags[ReachEngine.index(gridX, gridY, 0)] |= CollisionDataFlag.BLOCK_MOVEMENT_FULL;
+    }
+}
@@ -101,4 +101,24 @@ public interface Barb3TickFishingConfig extends Config
             hidden = true
     )
     void setWorldHopIntervalMinutes(int minutes);
+
+    @ConfigItem(
+            keyName = "logEveryAction",
+            name = "Log Every Action",
+            description = "Log each click, combine and drop instead of a summary every 100 ticks."
+    )
+    default boolean logEveryAction()
+    {
+        return false;
+    }
+
+    @ConfigItem(
+            keyName = "recordSession",
+            name = "Record Session",
+            description = "Write a compact per-tick binary record of each session to .runelite/illumine/barb3tick."
+    )
+    default boolean recordSession()
+    {
+        return true;
+    }
 }
@@ -1,26 +1,20 @@
 package com.illumine.barb3tickfishing;
 
 import com.google.inject.Provides;
-import com.tonic.Logger;
-import com.tonic.api.entities.ActorAPI;
-import com.tonic.api.entities.NpcAPI;
-import com.tonic.api.entities.PlayerAPI;
-import com.tonic.api.threaded.Delays;
-import com.tonic.api.widgets.InventoryAPI;
-import com.tonic.data.ItemEx;
-import com.tonic.queries.PlayerQuery;
+import com.illumine.util.DefinitionCache;
 import com.tonic.services.GameManager;
-import com.tonic.util.ClickManagerUtil;
 import com.tonic.util.VitaPlugin;
-import com.tonic.queries.InventoryQuery;
-import com.tonic.queries.NpcQuery;
-import net.runelite.api.Actor;
 import net.runelite.api.Client;
-import net.runelite.api.NPC;
-import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.GameState;
+import net.runelite.api.Skill;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.ItemContainerChanged;
 import net.runelite.api.events.NpcChanged;
 import net.runelite.api.gameval.InventoryID;
 import net.runelite.api.events.NpcDespawned;
+import net.runelite.api.events.NpcSpawned;
+import net.runelite.api.events.StatChanged;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.PluginDescriptor;
@@ -30,19 +24,13 @@ import net.runelite.client.util.ImageUtil;
 
 import javax.inject.Inject;
 import java.awt.image.BufferedImage;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Locale;
-import java.util.concurrent.ThreadLocalRandom;
 
 @PluginDescriptor(
         name = "illu 3Tick Barb Fishing",
         description = "3-tick barbarian fishing with smart mode scheduling",
         tags = {"fishing", "barbarian", "3tick", "vitalite", "illumine"}
 )
-public class Barb3TickFishingPlugin extends VitaPlugin implements WorldHopController.Host {
+public class Barb3TickFishingPlugin extends VitaPlugin {
     @Inject
     private ClientToolbar clientToolbar;
 
@@ -52,24 +40,15 @@ public class Barb3TickFishingPlugin extends VitaPlugin implements WorldHopContro
     private NavigationButton navButton;
     private Barb3TickFishingSidePanel panel;
     private Barb3TickFishingConfig config;
-    private Barb3TickRuntimeConfig runtimeConfig;
-    private ModeScheduler modeScheduler;
-    private boolean schedulerInitialized = false;
-    private long startTimeMs = 0L;
-    private long currentModeEnteredAtMs = 0L;
-    private long threeTickAccumulatedMs = 0L;
-
-    private WorldPoint targetTile = null;
-    private static final List<DropPattern> DROP_PATTERNS = List.of(
-            DropPattern.LEFT_TO_RIGHT,
-            DropPattern.RIGHT_TO_LEFT,
-            DropPattern.TOP_TO_BOTTOM,
-            DropPattern.RANDOM
-    );
-    private DropPattern selectedDropPattern = DropPattern.LEFT_TO_RIGHT;
-    private int playerNameLengthForPattern = 0;
-
-    private WorldHopController worldHopController;
+    // The single fishing engine; the plugin only feeds it events and panel input
+    private volatile Barb3TickRuntime runtime;
+
+    private final FishingSpotTracker fishingSpots = new FishingSpotTracker();
+    private final InventoryModel inventory = new InventoryModel();
+    private final TickSignal ticks = new TickSignal();
+    private final TickClock tickClock = new TickClock();
+    private volatile TickSnapshot snapshot = TickSnapshot.EMPTY;
+    private final EventLog events = new EventLog(() -> config != null && config.logEveryAction());
 
     @Provides
     Barb3TickFishingConfig provideConfig(ConfigManager configManager) {
@@ -80,12 +59,8 @@ public class Barb3TickFishingPlugin extends VitaPlugin implements WorldHopContro
     protected void startUp() {
         panel = injector.getInstance(Barb3TickFishingSidePanel.class);
         config = injector.getInstance(Barb3TickFishingConfig.class);
-        runtimeConfig = new Barb3TickRuntimeConfig();
-        runtimeConfig.applyFromConfig(config);
-        modeScheduler = null;
-        resetSimpleCycle();
-        worldHopController = new WorldHopController(this);
-        worldHopController.reset();
+        events.start();
+        runtime = new Barb3TickRuntime(this, panel, config);
 
         final BufferedImage icon = ImageUtil.loadImageResource(getClass(), "icon.png");
 
@@ -98,11 +73,14 @@ public class Barb3TickFishingPlugin extends VitaPlugin implements WorldHopContro
 
         clientToolbar.addNavigation(navButton);
         panel.attachPlugin(this);
-        updatePanelStatus();
     }
 
     @Override
     protected void shutDown() {
+        if (runtime != null) {
+            runtime.shutdown();
+            runtime = null;
+        }
         if (navButton != null) {
             clientToolbar.removeNavigation(navButton);
             navButton = null;
@@ -111,535 +89,178 @@ public class Barb3TickFishingPlugin extends VitaPlugin implements WorldHopContro
             panel.shutdown();
             panel = null;
         }
-        modeScheduler = null;
-        runtimeConfig = null;
-        resetSimpleCycle();
-        if (worldHopController != null) {
-            worldHopController.reset();
-            worldHopController = null;
-        }
-    }
-
-    @Override
-    public void loop() {
-        if (panel == null || !panel.isRunning()) {
-            return;
-        }
-
-        ensureSchedulerReady();
-
-        long now = System.currentTimeMillis();
-        if (worldHopController != null) {
-            worldHopController.updateHopDue(now);
-            if (worldHopController.canWorldHop(true)) {
-                boolean hopped = worldHopController.performWorldHop();
-                worldHopController.scheduleNextHop();
-                if (!hopped) {
-                    resetSimpleCycle();
-                    Delays.wait(ThreadLocalRandom.current().nextInt(400, 800));
-                }
-                updatePanelStatus();
-                return;
-            }
-        }
-        if (modeScheduler.modeExpiresAtMs() > 0 && now >= modeScheduler.modeExpiresAtMs()) {
-            modeScheduler.onWindowExpired();
-        }
-
-        processQueuedSwitchIfNeeded();
-
-        if (modeScheduler.tickFishing()) {
-            executeThreeTickCycle();
-        } else {
-            executeNormalCycle();
-        }
-
-        updatePanelStatus();
-    }
-
-    private void executeThreeTickCycle() {
-        if (!attemptClickFishingSpot()) {
-            Delays.tick();
-            return;
-        }
-
-        Delays.tick(2);
-
-        if (panel == null || !panel.isRunning()) {
-            return;
-        }
-
-        if (!attemptCombineAndDrop()) {
-            Delays.tick(1);
-        }
-    }
-
-    private void executeNormalCycle() {
-        if (InventoryAPI.isFull()) {
-            dropAllLeapingFish();
-            return;
-        }
-
-        Actor interacting = client.getLocalPlayer().getInteracting();
-
-        if (interacting != null) {
-            return;
-        }
-
-        if (!attemptClickFishingSpot()) {
-            Delays.tick();
-        }
+        fishingSpots.clear();
+        inventory.reset();
+        ticks.reset();
+        tickClock.reset();
+        snapshot = TickSnapshot.EMPTY;
+        events.stop();
     }
 
-    @Override
-    public Client getClient() {
-        return client;
+    @Subscribe
+    public void onNpcSpawned(NpcSpawned event) {
+        fishingSpots.onSpawned(event.getNpc());
     }
 
-    public Barb3TickFishingConfig getConfig() {
-        return config;
-    }
-
-    @Override
-    public void log(String message) {
-        Logger.info("[illu3TBarb] " + "[" + GameManager.getTickCount() + "]" + message);
+    @Subscribe
+    public void onNpcDespawned(NpcDespawned event) {
+        fishingSpots.onDespawned(event.getNpc());
     }
 
-    @Override
-    public void onWorldHopSuccess() {
-        resetSimpleCycle();
+    @Subscribe
+    public void onNpcChanged(NpcChanged event) {
+        fishingSpots.onChanged(event.getNpc());
     }
 
-    void onFrequencyModeChanged(ThreeTickFrequencyMode mode) {
-        ensureRuntimeConfigPresent();
-        runtimeConfig.setFrequencyMode(mode);
-        if (modeScheduler != null) {
-            finalizeActiveThreeTick(System.currentTimeMillis());
-            modeScheduler.reset();
+    @Subscribe
+    public void onItemContainerChanged(ItemContainerChanged event) {
+        if (event.getContainerId() == InventoryID.INV) {
+            inventory.rebuild(client, event.getItemContainer());
         }
-        schedulerInitialized = false;
-        log("Frequency mode changed to " + mode);
-        updatePanelStatus();
     }
 
-    void onHerbNameChanged(String herbName) {
-        ensureRuntimeConfigPresent();
-        runtimeConfig.setHerbName(herbName);
-        log("Herb name set to " + herbName);
-        updatePanelStatus();
-    }
-
-    void onFallbackChanged(boolean enabled) {
-        ensureRuntimeConfigPresent();
-        runtimeConfig.setSwitchToNormalOnSuppliesOut(enabled);
-        log("Fallback to normal fishing " + (enabled ? "enabled" : "disabled"));
-        updatePanelStatus();
-    }
-
-    void onWorldHopToggle(boolean enabled) {
-        if (worldHopController != null) {
-            int interval = Math.max(1, config != null ? config.worldHopIntervalMinutes() : 10);
-            worldHopController.setHopIntervalMinutes(interval);
-            worldHopController.setHopEnabled(enabled);
+    @Subscribe
+    public void onStatChanged(StatChanged event) {
+        Barb3TickRuntime engine = runtime;
+        if (engine != null && event.getSkill() == Skill.FISHING) {
+            engine.onFishingXp(client.getTickCount());
         }
-        log("World hopping " + (enabled ? "enabled" : "disabled"));
-        updatePanelStatus();
     }
 
-    void onHopIntervalChanged(int minutes) {
-        if (worldHopController != null) {
-            worldHopController.setHopIntervalMinutes(Math.max(1, minutes));
+    @Subscribe
+    public void onGameTick(GameTick event) {
+        // Stamped before anything else so the estimate tracks when the tick arrived, not when we finished with it
+        long now = System.nanoTime();
+        tickClock.onTick(client.getTickCount(), now);
+        snapshot = TickSnapshot.capture(client, client.getTickCount(), now);
+        if (!inventory.isLoaded()) {
+            // Started mid-session: no change event yet, read the container once
+            inventory.load(client);
         }
-        log("World hop interval set to " + minutes + " minute(s)");
-        updatePanelStatus();
+        inventory.publishTick(client.getTickCount());
+        fishingSpots.onTick(client.getTickCount());
+        ticks.publish(client.getTickCount());
     }
 
-    void onStartRequested() {
-        if (panel != null) {
-            panel.setRunning(true);
+    @Subscribe
+    public void onGameStateChanged(GameStateChanged event) {
+        GameState state = event.getGameState();
+        // No ticks while loading or hopping; keep the game state readers see current
+        snapshot = TickSnapshot.capture(client, client.getTickCount(), System.nanoTime());
+        if (state == GameState.LOADING || state == GameState.HOPPING || state == GameState.LOGIN_SCREEN) {
+            // Scene reload: despawns are not guaranteed, start over and re-seed
+            fishingSpots.clear();
         }
-        ensureRuntimeConfigPresent();
-        runtimeConfig.applyFromConfig(config);
-        if (modeScheduler == null) {
-            modeScheduler = new ModeScheduler(runtimeConfig, this::log);
+        if (state == GameState.LOGIN_SCREEN) {
+            inventory.reset();
+            DefinitionCache.ITEMS.clear();
+            DefinitionCache.NPCS.clear();
         }
-        modeScheduler.reset();
-        modeScheduler.initialiseMode();
-        schedulerInitialized = true;
-        long now = System.currentTimeMillis();
-        startTimeMs = now;
-        currentModeEnteredAtMs = now;
-        threeTickAccumulatedMs = 0L;
-        resetSimpleCycle();
-        if (worldHopController != null) {
-            worldHopController.initialize(config.allowWorldHop(), config.worldHopIntervalMinutes());
-        }
-        updatePanelStatus();
-        log("Start requested");
     }
 
-    void onStopRequested() {
-        if (panel != null) {
-            panel.setRunning(false);
-        }
-        long now = System.currentTimeMillis();
-        finalizeActiveThreeTick(now);
-        if (modeScheduler != null) {
-            modeScheduler.reset();
-        }
-        schedulerInitialized = false;
-        startTimeMs = 0L;
-        currentModeEnteredAtMs = 0L;
-        threeTickAccumulatedMs = 0L;
-        resetSimpleCycle();
-        if (worldHopController != null) {
-            worldHopController.reset();
-        }
-        updatePanelStatus();
-        log("Stop requested");
-    }
-
-    private boolean attemptClickFishingSpot() {
-        NPC spot = findFishingSpot();
-        if (spot == null) {
-            log("No fishing spot available");
-            return false;
-        }
-        targetTile = spot.getWorldLocation();
-        ClickManagerUtil.queueClickBox(spot);
-        NpcAPI.interact(spot, "Use-rod");
-        log("Fishing: clicked spot (simple)");
-        return true;
-    }
-
-    private boolean attemptCombineAndDrop() {
-        ItemEx tar = InventoryQuery.fromInventoryId(InventoryID.INV)
-                .withName("Swamp tar")
-                .first();
-        ItemEx herb = InventoryQuery.fromInventoryId(InventoryID.INV)
-                .withName(config.herbName())
-                .first();
-
-        if (tar == null || herb == null) {
-            log("Missing tar or herb for combine");
-            return false;
-        }
-
-        InventoryAPI.useOn(tar, herb);
-        log("Combining: used tar on herb (simple)");
-        dropOneLeapingFish();
-        return true;
-    }
-
-    private NPC findFishingSpot() {
-        if (targetTile != null) {
-            NPC locked = new NpcQuery()
-                    .withName("Fishing spot")
-                    .withAction("Use-rod")
-                    .atLocation(targetTile)
-                    .first();
-            if (locked != null) {
-                return locked;
-            }
-        }
-
-        NPC nearest = new NpcQuery()
-                .withName("Fishing spot")
-                .withAction("Use-rod")
-                .nearest();
-        if (nearest != null) {
-            targetTile = nearest.getWorldLocation();
-        }
-        return nearest;
-    }
-
-    private void dropOneLeapingFish() {
-        ItemEx fish = InventoryQuery.fromInventoryId(InventoryID.INV)
-                .withNameContains("Leaping")
-                .first();
-        if (fish != null) {
-            InventoryAPI.interact(fish, "Drop");
-            log("t=" + client.getTickCount() + " dropping: dropped one leaping fish (simple)");
+    @Override
+    public void loop() {
+        Barb3TickRuntime engine = runtime;
+        if (engine != null) {
+            engine.loop();
         }
     }
 
-    private void dropAllLeapingFish() {
-        List<ItemEx> leapingFish = InventoryQuery.fromInventoryId(InventoryID.INV)
-                .withNameContains("Leaping")
-                .collect();
-        if (leapingFish.isEmpty()) {
-            return;
-        }
-
-        DropPattern pattern = resolveDropPatternForPlayer();
-        List<ItemEx> dropOrder = pattern.orderItems(leapingFish);
-        int dropped = 0;
-        for (ItemEx fish : dropOrder) {
-            if (fish == null) {
-                continue;
-            }
-            InventoryAPI.interact(fish, "Drop");
-            dropped++;
-            Delays.wait(ThreadLocalRandom.current().nextInt(25, 500));
-        }
-        if (dropped > 0) {
-            Delays.wait(ThreadLocalRandom.current().nextInt(50, 3000));
-            log("Normal: dropped " + dropped + " leaping fish using " + pattern.displayName());
-        }
+    public Client getClient() {
+        return client;
     }
 
-    private DropPattern resolveDropPatternForPlayer() {
-        String rawName = client.getLocalPlayer().getName();
-        if (rawName == null || rawName.isEmpty()) {
-            selectedDropPattern = DropPattern.LEFT_TO_RIGHT;
-            playerNameLengthForPattern = 0;
-            return selectedDropPattern;
-        }
-        int length = rawName.length();
-        if (length != playerNameLengthForPattern) {
-            playerNameLengthForPattern = length;
-            int index = Math.floorMod(length, DROP_PATTERNS.size());
-            selectedDropPattern = DROP_PATTERNS.get(index);
-            log("Normal: drop pattern set to " + selectedDropPattern.displayName());
-        }
-        return selectedDropPattern;
+    InventoryModel inventory() {
+        return inventory;
     }
 
-    private void resetSimpleCycle() {
-        targetTile = null;
-        selectedDropPattern = DropPattern.LEFT_TO_RIGHT;
-        playerNameLengthForPattern = 0;
+    FishingSpotTracker fishingSpots() {
+        return fishingSpots;
     }
 
-    private void ensureRuntimeConfigPresent() {
-        if (runtimeConfig == null) {
-            runtimeConfig = new Barb3TickRuntimeConfig();
-            if (config != null) {
-                runtimeConfig.applyFromConfig(config);
-            }
-        }
+    TickSignal ticks() {
+        return ticks;
     }
 
-    private void ensureSchedulerReady() {
-        ensureRuntimeConfigPresent();
-        if (modeScheduler == null) {
-            modeScheduler = new ModeScheduler(runtimeConfig, this::log);
-        }
-        if (!schedulerInitialized) {
-            modeScheduler.reset();
-            modeScheduler.initialiseMode();
-            schedulerInitialized = true;
-            if (panel != null && panel.isRunning()) {
-                currentModeEnteredAtMs = System.currentTimeMillis();
-            }
-        }
+    TickClock tickClock() {
+        return tickClock;
     }
 
-    private void processQueuedSwitchIfNeeded() {
-        if (modeScheduler == null || !modeScheduler.switchQueued()) {
-            return;
-        }
-        FishingMode nextMode = modeScheduler.tickFishing() ? FishingMode.NORMAL : FishingMode.THREE_TICK;
-        applyScheduledMode(nextMode);
-        modeScheduler.clearQueue();
-        resetSimpleCycle();
+    /** Client state captured at the start of the last game tick. */
+    TickSnapshot snapshot() {
+        return snapshot;
     }
 
-    private void applyScheduledMode(FishingMode nextMode) {
-        if (modeScheduler == null) {
-            return;
-        }
-        long now = System.currentTimeMillis();
-        if (modeScheduler.tickFishing() && currentModeEnteredAtMs > 0L) {
-            threeTickAccumulatedMs += Math.max(0L, now - currentModeEnteredAtMs);
-        }
-        modeScheduler.setFishingMode(nextMode);
-        currentModeEnteredAtMs = now;
+    public Barb3TickFishingConfig getConfig() {
+        return config;
     }
 
-    private void finalizeActiveThreeTick(long now) {
-        if (modeScheduler != null && modeScheduler.tickFishing() && currentModeEnteredAtMs > 0L) {
-            threeTickAccumulatedMs += Math.max(0L, now - currentModeEnteredAtMs);
-        }
+    EventLog events() {
+        return events;
     }
 
-    private void updatePanelStatus() {
-        if (panel == null) {
-            return;
-        }
-        boolean running = panel.isRunning();
-        String modeLabel;
-        if (running && modeScheduler != null) {
-            modeLabel = modeScheduler.tickFishing() ? "3Tick" : "Normal";
-        } else {
-            modeLabel = "Idle";
-        }
-
-        Barb3TickFishingSidePanel.StatusSnapshot snapshot = new Barb3TickFishingSidePanel.StatusSnapshot(
-                modeLabel,
-                getFrequencyDisplay(),
-                formatThreeTickShare(),
-                formatSwitchCountdown(),
-                formatWorld(),
-                formatNextHop(),
-                formatSuppliesStatus()
-        );
-        panel.updateStatus(snapshot);
+    public void log(String message) {
+        events.message(GameManager.getTickCount(), message);
     }
 
-    private String getFrequencyDisplay() {
-        ensureRuntimeConfigPresent();
-        ThreeTickFrequencyMode currentMode = runtimeConfig.frequencyMode();
-        if (currentMode == ThreeTickFrequencyMode.RANDOM && modeScheduler != null) {
-            ThreeTickFrequencyMode profile = modeScheduler.activeRandomProfile();
-            String current = (panel != null && panel.isRunning() && modeScheduler.tickFishing()) ? "3T" : "Normal";
-            String profLabel = (profile == null) ? "—" : profile.shortLabel();
-            return "Random(" + current + " " + profLabel + ")";
+    void onFrequencyModeChanged(ThreeTickFrequencyMode mode) {
+        if (runtime != null) {
+            runtime.onFrequencyModeChanged(mode);
         }
-        return currentMode.label();
+        log("Frequency mode changed to " + mode);
     }
 
-    private String formatThreeTickShare() {
-        if (startTimeMs <= 0L) {
-            return "0.0%";
-        }
-        long now = System.currentTimeMillis();
-        long total = Math.max(1L, now - startTimeMs);
-        long threeTickTime = threeTickAccumulatedMs;
-        if (modeScheduler != null && modeScheduler.tickFishing() && currentModeEnteredAtMs > 0L) {
-            threeTickTime += Math.max(0L, now - currentModeEnteredAtMs);
+    void onHerbNameChanged(String herbName) {
+        if (runtime != null) {
+            runtime.onHerbNameChanged(herbName);
         }
-        double share = Math.max(0.0, Math.min(100.0, (double) threeTickTime / (double) total * 100.0));
-        return String.format(Locale.ENGLISH, "%.1f%%", share);
+        log("Herb name set to " + herbName);
     }
 
-    private String formatSwitchCountdown() {
-        if (panel == null || !panel.isRunning() || modeScheduler == null || runtimeConfig == null) {
-            return "N/A";
-        }
-        if (!runtimeConfig.switchingEnabled()) {
-            return "N/A";
-        }
-        long remaining = modeScheduler.modeExpiresAtMs() - System.currentTimeMillis();
-        if (remaining <= 0L) {
-            return "0s";
+    void onFallbackChanged(boolean enabled) {
+        if (runtime != null) {
+            runtime.onFallbackChanged(enabled);
         }
-        return formatDurationShort(remaining);
+        log("Fallback to normal fishing " + (enabled ? "enabled" : "disabled"));
     }
 
-    private String formatWorld() {
-        if (worldHopController != null) {
-            String label = worldHopController.formatCurrentWorld();
-            if (!"—".equals(label) && label != null && !label.isBlank()) {
-                return label.startsWith("W") ? label.substring(1) : label;
-            }
-        }
-        if (client == null || client.getLocalPlayer() == null) {
-            return "—";
+    void onWorldHopToggle(boolean enabled) {
+        if (runtime != null) {
+            runtime.onHopIntervalChanged(Math.max(1, config != null ? config.worldHopIntervalMinutes() : 10));
+            runtime.onWorldHopToggle(enabled);
         }
-        int world = client.getWorld();
-        return world > 0 ? Integer.toString(world) : "—";
+        log("World hopping " + (enabled ? "enabled" : "disabled"));
     }
 
-    private String formatNextHop() {
-        if (panel == null || !panel.isRunning() || worldHopController == null) {
-            return "N/A";
-        }
-        String countdown = worldHopController.formatTimeToHop();
-        if (countdown == null || countdown.isBlank() || "—".equals(countdown)) {
-            return "N/A";
-        }
-        if ("00:00".equals(countdown)) {
-            return "0s";
+    void onHopIntervalChanged(int minutes) {
+        if (runtime != null) {
+            runtime.onHopIntervalChanged(Math.max(1, minutes));
         }
-        return countdown;
+        log("World hop interval set to " + minutes + " minute(s)");
     }
 
-    private String formatSuppliesStatus() {
-        if (panel == null || !panel.isRunning() || client == null || client.getLocalPlayer() == null) {
-            return "—";
-        }
-        ensureRuntimeConfigPresent();
-        if (runtimeConfig.frequencyMode() == ThreeTickFrequencyMode.NEVER) {
-            return "N/A";
+    void onPanelShown() {
+        Barb3TickRuntime engine = runtime;
+        if (engine != null) {
+            engine.onPanelShown();
         }
-        ItemEx tar = InventoryQuery.fromInventoryId(InventoryID.INV)
-                .withName("Swamp tar")
-                .first();
-        ItemEx herb = InventoryQuery.fromInventoryId(InventoryID.INV)
-                .withName(runtimeConfig.herbName())
-                .first();
-        return (tar != null && herb != null) ? "OK" : "Check";
     }
 
-    private static String formatDurationShort(long millis) {
-        long totalSeconds = Math.max(0L, millis / 1000L);
-        long hours = totalSeconds / 3600L;
-        long minutes = (totalSeconds % 3600L) / 60L;
-        long seconds = totalSeconds % 60L;
-        if (hours > 0L) {
-            return String.format(Locale.ENGLISH, "%dh%02dm", hours, minutes);
-        }
-        if (minutes > 0L) {
-            return String.format(Locale.ENGLISH, "%dm%02ds", minutes, seconds);
+    void onStartRequested() {
+        if (panel == null || runtime == null) {
+            return;
         }
-        return String.format(Locale.ENGLISH, "%ds", seconds);
+        // The runtime flips this back if the level or item checks fail
+        panel.setRunning(true);
+        runtime.requestRunning(true);
     }
 
-    private enum DropPattern {
-        LEFT_TO_RIGHT("left to right") {
-            @Override
-            List<ItemEx> orderItems(List<ItemEx> items) {
-                List<ItemEx> ordered = new ArrayList<>(items);
-                ordered.sort(Comparator.comparingInt(ItemEx::getSlot));
-                return ordered;
-            }
-        },
-        RIGHT_TO_LEFT("right to left") {
-            @Override
-            List<ItemEx> orderItems(List<ItemEx> items) {
-                List<ItemEx> ordered = new ArrayList<>(items);
-                ordered.sort(Comparator.comparingInt(ItemEx::getSlot).reversed());
-                return ordered;
-            }
-        },
-        TOP_TO_BOTTOM("top to bottom") {
-            @Override
-            List<ItemEx> orderItems(List<ItemEx> items) {
-                List<ItemEx> ordered = new ArrayList<>(items);
-                ordered.sort(Comparator
-                        .comparingInt((ItemEx item) -> inventoryRow(item.getSlot()))
-                        .thenComparingInt((ItemEx item) -> inventoryColumn(item.getSlot())));
-                return ordered;
-            }
-        },
-        RANDOM("random") {
-            @Override
-            List<ItemEx> orderItems(List<ItemEx> items) {
-                List<ItemEx> ordered = new ArrayList<>(items);
-                Collections.shuffle(ordered, ThreadLocalRandom.current());
-                return ordered;
-            }
-        };
-
-        private final String displayName;
-
-        DropPattern(String displayName) {
-            this.displayName = displayName;
-        }
-
-        abstract List<ItemEx> orderItems(List<ItemEx> items);
-
-        String displayName() {
-            return displayName;
-        }
-
-        private static int inventoryRow(int slot) {
-            return slot / 4;
+    void onStopRequested() {
+        if (panel != null) {
+            panel.setRunning(false);
         }
-
-        private static int inventoryColumn(int slot) {
-            return slot % 4;
+        if (runtime != null) {
+            runtime.requestRunning(false);
         }
     }
 }
@@ -1,5 +1,6 @@
 package com.illumine.barb3tickfishing;
 
+import com.illumine.util.UiRefreshScheduler;
 import com.tonic.model.ui.components.FancyButton;
 import com.tonic.model.ui.components.FancyCard;
 import com.tonic.model.ui.components.FancyDropdown;
@@ -17,8 +18,6 @@ import javax.swing.JPanel;
 import javax.swing.JSpinner;
 import javax.swing.JTextField;
 import javax.swing.SpinnerNumberModel;
-import javax.swing.SwingUtilities;
-import javax.swing.Timer;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
@@ -29,6 +28,7 @@ import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class Barb3TickFishingSidePanel extends PluginPanel
 {
@@ -47,8 +47,11 @@ public class Barb3TickFishingSidePanel extends PluginPanel
 
     private final JLabel runtimeLabel;
     private final Map<StatusField, JLabel> statusLabels = new EnumMap<>(StatusField.class);
+    // Latest status from the engine, replaced rather than queued; drained on the EDT by the shared refresh
+    private final AtomicReference<StatusSnapshot> pendingStatus = new AtomicReference<>();
+    private final Map<StatusField, String> shownStatus = new EnumMap<>(StatusField.class);
 
-    private final Timer runtimeTimer;
+    private final UiRefreshScheduler.Registration refreshRegistration;
     private boolean running = false;
     private long startTimeMs = 0L;
     private boolean suppressFrequencyEvents = false;
@@ -130,7 +133,7 @@ public class Barb3TickFishingSidePanel extends PluginPanel
         spacer.setOpaque(false);
         add(spacer, c);
 
-        runtimeTimer = new Timer(250, e -> updateRuntime());
+        refreshRegistration = UiRefreshScheduler.shared().register(this, this::refresh, this::onShown);
         setWorldHopControlsState(worldHopCheckbox.isSelected());
         updateFrequencyVisibility(config.frequencyMode());
     }
@@ -155,36 +158,35 @@ public class Barb3TickFishingSidePanel extends PluginPanel
         if (running)
         {
             startTimeMs = System.currentTimeMillis();
-            runtimeTimer.start();
             startStopButton.setText("Stop");
         }
         else
         {
-            runtimeTimer.stop();
             startStopButton.setText("Start");
         }
     }
 
+    /**
+     * Posts the engine's latest status. Nothing is queued on the EDT: a newer status simply replaces one that has
+     * not been drawn yet, and the shared UI refresh draws whatever is there a few times a second.
+     */
     public void updateStatus(StatusSnapshot snapshot)
     {
-        if (snapshot == null)
+        if (snapshot != null)
         {
-            return;
+            pendingStatus.set(snapshot);
         }
-        SwingUtilities.invokeLater(() -> {
-            setStatus(StatusField.MODE, snapshot.mode());
-            setStatus(StatusField.FREQUENCY, snapshot.frequency());
-            setStatus(StatusField.THREE_T_SHARE, snapshot.share3Tick());
-            setStatus(StatusField.NEXT_SWITCH, snapshot.nextSwitch());
-            setStatus(StatusField.WORLD, snapshot.world());
-            setStatus(StatusField.NEXT_HOP, snapshot.nextHop());
-            setStatus(StatusField.SUPPLIES, snapshot.supplies());
-        });
+    }
+
+    /** True if a status posted now would be drawn; the engine skips building one while the panel is hidden. */
+    boolean wantsStatus()
+    {
+        return refreshRegistration.isShowing();
     }
 
     public void shutdown()
     {
-        runtimeTimer.stop();
+        refreshRegistration.close();
     }
 
     String getHerbNameInput()
@@ -374,6 +376,53 @@ public class Barb3TickFishingSidePanel extends PluginPanel
         checkBox.setOpaque(false);
     }
 
+    /** Statuses were not built while hidden; ask for the current one so the panel does not show a stale state. */
+    private void onShown()
+    {
+        Barb3TickFishingPlugin attached = plugin;
+        if (attached != null)
+        {
+            attached.onPanelShown();
+        }
+    }
+
+    private void refresh()
+    {
+        updateRuntime();
+        drainStatus();
+    }
+
+    private void drainStatus()
+    {
+        StatusSnapshot snapshot = pendingStatus.getAndSet(null);
+        if (snapshot == null)
+        {
+            return;
+        }
+        applyStatus(StatusField.MODE, snapshot.mode());
+        applyStatus(StatusField.FREQUENCY, snapshot.frequency());
+        applyStatus(StatusField.THREE_T_SHARE, snapshot.share3Tick());
+        applyStatus(StatusField.NEXT_SWITCH, snapshot.nextSwitch());
+        applyStatus(StatusField.WORLD, snapshot.world());
+        applyStatus(StatusField.NEXT_HOP, snapshot.nextHop());
+        applyStatus(StatusField.SUPPLIES, snapshot.supplies());
+        applyStatus(StatusField.CYCLES_OK, snapshot.cyclesOk());
+        applyStatus(StatusField.CATCH_RATE, snapshot.catchRate());
+        applyStatus(StatusField.ACTION_P50, snapshot.actionP50());
+        applyStatus(StatusField.ACTION_P95, snapshot.actionP95());
+    }
+
+    /** Only labels whose text changed are touched, so an unchanged status costs no relayout. */
+    private void applyStatus(StatusField field, String value)
+    {
+        if (value != null && value.equals(shownStatus.get(field)))
+        {
+            return;
+        }
+        shownStatus.put(field, value);
+        setStatus(field, value);
+    }
+
     private void updateRuntime()
     {
         if (!running)
@@ -453,7 +502,11 @@ public class Barb3TickFishingSidePanel extends PluginPanel
         NEXT_SWITCH("Next Switch"),
         WORLD("World"),
         NEXT_HOP("Next Hop"),
-        SUPPLIES("Supplies");
+        SUPPLIES("Supplies"),
+        CYCLES_OK("3T Cycles OK"),
+        CATCH_RATE("3T Catch"),
+        ACTION_P50("Action p50"),
+        ACTION_P95("Action p95");
 
         private final String displayName;
 
@@ -477,8 +530,13 @@ public class Barb3TickFishingSidePanel extends PluginPanel
         private final String world;
         private final String nextHop;
         private final String supplies;
+        private final String cyclesOk;
+        private final String catchRate;
+        private final String actionP50;
+        private final String actionP95;
 
-        public StatusSnapshot(String mode, String frequency, String share3Tick, String nextSwitch, String world, String nextHop, String supplies)
+        public StatusSnapshot(String mode, String frequency, String share3Tick, String nextSwitch, String world, String nextHop, String supplies,
+                              String cyclesOk, String catchRate, String actionP50, String actionP95)
         {
             this.mode = mode;
             this.frequency = frequency;
@@ -487,6 +545,10 @@ public class Barb3TickFishingSidePanel extends PluginPanel
             this.world = world;
             this.nextHop = nextHop;
             this.supplies = supplies;
+            this.cyclesOk = cyclesOk;
+            this.catchRate = catchRate;
+            this.actionP50 = actionP50;
+            this.actionP95 = actionP95;
         }
 
         public String mode()
@@ -523,5 +585,25 @@ public class Barb3TickFishingSidePanel extends PluginPanel
         {
             return supplies;
         }
+
+        public String cyclesOk()
+        {
+            return cyclesOk;
+        }
+
+        public String catchRate()
+        {
+            return catchRate;
+        }
+
+        public String actionP50()
+        {
+            return actionP50;
+        }
+
+        public String actionP95()
+        {
+            return actionP95;
+        }
     }
 }
@@ -1,29 +1,26 @@
 package com.illumine.barb3tickfishing;
 
+import com.illumine.util.DefinitionCache;
 import com.tonic.api.entities.NpcAPI;
 import com.tonic.api.game.MovementAPI;
-import com.tonic.api.threaded.Delays;
 import com.tonic.api.widgets.InventoryAPI;
 import com.tonic.api.widgets.TabsAPI;
 import com.tonic.data.ItemEx;
-import com.tonic.queries.InventoryQuery;
-import com.tonic.queries.NpcQuery;
 import com.tonic.util.ClickManagerUtil;
 import net.runelite.api.Client;
-import net.runelite.api.GameState;
 import net.runelite.api.NPC;
-import net.runelite.api.Player;
-import net.runelite.api.Skill;
 import net.runelite.api.coords.WorldPoint;
-import net.runelite.api.gameval.InventoryID;
+import net.runelite.client.RuneLite;
 
 import javax.swing.SwingUtilities;
+import java.io.File;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Locale;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.illumine.barb3tickfishing.FishingMode.NORMAL;
 import static com.illumine.barb3tickfishing.FishingMode.THREE_TICK;
@@ -31,7 +28,7 @@ import static com.illumine.barb3tickfishing.FishingMode.THREE_TICK;
 class Barb3TickRuntime implements WorldHopController.Host
 {
 
-    private enum NextAction
+    enum NextAction
     {
         CLICK_SPOT,
         WAIT_FOR_COMBINE,
@@ -46,13 +43,33 @@ class Barb3TickRuntime implements WorldHopController.Host
             DropPattern.RANDOM
     );
 
+    // Longest the loop parks waiting for a tick before re-checking running/stop state
+    private static final long TICK_WAIT_MS = 1000L;
+    // Time a step needs before the tick boundary for its inputs to land in this tick; later wakes wait for the next
+    private static final long ACTION_BUDGET_MS = 150L;
+    // Ticks a click may spend walking to the spot before the cycle gives up and re-clicks
+    private static final int APPROACH_TICKS = 3;
+
+    // Resolved to id sets once; every check below compares ints
+    private static final DefinitionCache.Matcher TAR = DefinitionCache.ITEMS.named("Swamp tar");
+    private static final DefinitionCache.Matcher LEAPING = DefinitionCache.ITEMS.nameContains("Leaping");
+    private static final DefinitionCache.Matcher FEATHER = DefinitionCache.ITEMS.named("Feather");
+    private static final DefinitionCache.Matcher BARBARIAN_ROD = DefinitionCache.ITEMS.named("Barbarian rod");
+
     private final Barb3TickFishingPlugin plugin;
     private final Barb3TickFishingSidePanel panel;
     private final Barb3TickRuntimeConfig runtimeConfig = new Barb3TickRuntimeConfig();
     private final ModeScheduler modeScheduler = new ModeScheduler(runtimeConfig, this::log);
     private final SuppliesManager suppliesManager = new SuppliesManager(this);
     private final WorldHopController worldHopController = new WorldHopController(this);
-
+    private final CycleStats cycleStats = new CycleStats();
+    private final SessionRecorder recorder = new SessionRecorder(
+            new File(RuneLite.RUNELITE_DIR, "illumine" + File.separator + "barb3tick"), this::log);
+    // A leaping fish added to the inventory is a catch landing, whatever the XP event says
+    private final InventoryModel.Listener catchListener = this::onInventoryDelta;
+
+    // This tick's client state; the loop reads only this, never the client directly
+    private TickSnapshot snap = TickSnapshot.EMPTY;
     private NPC currentFishSpot = null;
     private WorldPoint targetSpotTile = null;
     private WorldPoint scriptStartTile = null;
@@ -66,12 +83,27 @@ class Barb3TickRuntime implements WorldHopController.Host
     private long threeTickAccumulatedMs = 0L;
     private long lastKnownGameTick = -1L;
     private long combineAtTick = -1L;
+    private int handledSpotChangeTick = -1;
+    private int lastProcessedTick = -1;
+    private long approachDeadlineTick = -1L;
+    private final ArrayDeque<ItemEx> dropQueue = new ArrayDeque<>();
+    // Desync signals: when the last click and combine went out, and when their effects were last seen
+    private long lastClickTick = -1L;
+    private long lastCombineTick = -1L;
+    private volatile long herbUsedTick = -1L;
+    private volatile long fishingXpTick = -1L;
+    // SessionRecorder.ACTION_* bits for inputs sent this tick, and the XP the last record saw
+    private int tickActions = 0;
+    private int lastRecordedXp = -1;
 
     private DropPattern selectedDropPattern = DropPattern.LEFT_TO_RIGHT;
     private int playerNameLengthForPattern = 0;
 
-    private boolean running = false;
+    // Written by the script thread only; read from the EDT for the panel
+    private volatile boolean running = false;
     private boolean startInitializationComplete = false;
+    // Start/stop asked for from the panel (EDT), applied by the script thread at the top of its next loop pass
+    private final AtomicReference<Boolean> pendingRunRequest = new AtomicReference<>();
 
     Barb3TickRuntime(Barb3TickFishingPlugin plugin, Barb3TickFishingSidePanel panel, Barb3TickFishingConfig persistedConfig)
     {
@@ -79,22 +111,52 @@ class Barb3TickRuntime implements WorldHopController.Host
         this.panel = panel;
         runtimeConfig.applyFromConfig(persistedConfig);
         suppliesManager.setHerbName(runtimeConfig.herbName());
+        plugin.inventory().addListener(suppliesManager);
+        plugin.inventory().addListener(catchListener);
+    }
+
+    /**
+     * Any thread: asks the script thread to start ({@code true}) or stop before its next step. The last request
+     * wins; nothing here touches engine state, so a step in progress is never reset under it.
+     */
+    void requestRunning(boolean run)
+    {
+        pendingRunRequest.set(run);
     }
 
-    void start()
+    private void applyRunRequest()
+    {
+        Boolean run = pendingRunRequest.getAndSet(null);
+        if (run == null)
+        {
+            return;
+        }
+        if (run)
+        {
+            start();
+        }
+        else
+        {
+            stop();
+        }
+    }
+
+    /** Script thread. */
+    private void start()
     {
         if (running)
         {
             return;
         }
-        if (!hasLevelRequirements())
+        if (!hasLevelRequirements(plugin.snapshot()))
         {
             log("Stopping script: Barbarian Fishing level requirements not met. You need all of: 48 Fishing, 15 Strength, 15 Agility.");
-            panel.setRunning(false);
+            SwingUtilities.invokeLater(() -> panel.setRunning(false));
             return;
         }
         log("Starting script");
         resetState();
+        cycleStats.reset();
         runtimeConfig.applyFromConfig(plugin.getConfig());
         suppliesManager.setHerbName(runtimeConfig.herbName());
         worldHopController.initialize(plugin.getConfig().allowWorldHop(), plugin.getConfig().worldHopIntervalMinutes());
@@ -103,18 +165,24 @@ class Barb3TickRuntime implements WorldHopController.Host
         startTimeMs = now;
         currentModeEnteredAtMs = now;
         threeTickAccumulatedMs = 0L;
-        Player player = client().getLocalPlayer();
-        if (player != null)
+        snap = plugin.snapshot();
+        if (snap.ready())
         {
-            scriptStartTile = player.getWorldLocation();
-            selectedDropPattern = resolveDropPatternForPlayer(player);
+            scriptStartTile = snap.playerTile();
+            selectedDropPattern = resolveDropPatternForPlayer(snap.playerName());
             log("Dropping pattern set to " + selectedDropPattern.displayName() + " (name length=" + playerNameLengthForPattern + ")");
         }
+        lastRecordedXp = -1;
+        if (plugin.getConfig().recordSession())
+        {
+            recorder.open();
+        }
         running = true;
         startInitializationComplete = true;
         TabsAPI.open(com.tonic.data.Tab.INVENTORY_TAB);
     }
 
+    /** Script thread, or plugin shutdown once the loop is no longer scheduled. */
     void stop()
     {
         if (!running)
@@ -123,6 +191,7 @@ class Barb3TickRuntime implements WorldHopController.Host
         }
         log("Stopped script");
         running = false;
+        recorder.close();
         if (modeScheduler.tickFishing() && currentModeEnteredAtMs > 0)
         {
             threeTickAccumulatedMs += Math.max(0L, System.currentTimeMillis() - currentModeEnteredAtMs);
@@ -132,20 +201,49 @@ class Barb3TickRuntime implements WorldHopController.Host
         suppliesManager.reset();
         modeScheduler.reset();
         resetState();
+        updatePanelStatus();
+    }
+
+    /** Stops and detaches from the plugin's shared models; the plugin is shutting down. */
+    void shutdown()
+    {
+        stop();
+        plugin.inventory().removeListener(suppliesManager);
+        plugin.inventory().removeListener(catchListener);
     }
 
     void loop()
     {
+        applyRunRequest();
         if (!running)
         {
             return;
         }
-        if (!ensureClientReady())
+        // One engine step per game tick; park until the next one instead of polling
+        int tick = plugin.ticks().awaitAfter(lastProcessedTick, TICK_WAIT_MS);
+        if (tick == lastProcessedTick || !running)
+        {
+            return;
+        }
+        lastProcessedTick = tick;
+        snap = plugin.snapshot();
+        if (!snap.ready())
         {
             return;
         }
+        tickActions = 0;
+        step(tick);
+        recordTick(tick);
+    }
 
-        updateTickCount();
+    private void step(int tick)
+    {
+        if (!earlyEnoughInTick())
+        {
+            return;
+        }
+
+        updateTickCount(tick);
         long now = System.currentTimeMillis();
         worldHopController.updateHopDue(now);
 
@@ -166,6 +264,7 @@ class Barb3TickRuntime implements WorldHopController.Host
         {
             if (worldHopController.performWorldHop())
             {
+                tickActions |= SessionRecorder.ACTION_HOP;
                 worldHopController.scheduleNextHop();
             }
             else
@@ -194,6 +293,9 @@ class Barb3TickRuntime implements WorldHopController.Host
             return;
         }
 
+        retargetIfSpotMoved();
+        resyncIfDesynced();
+
         switch (nextAction)
         {
             case CLICK_SPOT:
@@ -253,6 +355,23 @@ class Barb3TickRuntime implements WorldHopController.Host
         return modeScheduler;
     }
 
+    InventoryModel inventory()
+    {
+        return plugin.inventory();
+    }
+
+    CycleStats cycleStats()
+    {
+        return cycleStats;
+    }
+
+    /** Fishing XP arrived on {@code tick}. Client thread, from StatChanged. */
+    void onFishingXp(int tick)
+    {
+        fishingXpTick = tick;
+        cycleStats.landed(tick);
+    }
+
     SuppliesManager suppliesManager()
     {
         return suppliesManager;
@@ -279,6 +398,18 @@ class Barb3TickRuntime implements WorldHopController.Host
         plugin.log(message);
     }
 
+    @Override
+    public void logEvent(EventLog.Type type, int value)
+    {
+        event(type, value, null);
+    }
+
+    /** Records a structured event for this engine tick; formatting, if any, happens on the log thread. */
+    private void event(EventLog.Type type, int value, Object ref)
+    {
+        plugin.events().record((int) tickCount, type, value, ref);
+    }
+
     @Override
     public Client getClient()
     {
@@ -290,6 +421,12 @@ class Barb3TickRuntime implements WorldHopController.Host
         return getClient();
     }
 
+    @Override
+    public TickSnapshot snapshot()
+    {
+        return plugin.snapshot();
+    }
+
     void switchToPermanentNormalMode()
     {
         runtimeConfig.setFrequencyMode(ThreeTickFrequencyMode.NEVER);
@@ -312,6 +449,8 @@ class Barb3TickRuntime implements WorldHopController.Host
         targetSpotTile = null;
         currentFishSpot = null;
         lastSpotSource = "";
+        plugin.fishingSpots().unlock();
+        cycleStats.abandon();
         nextAction = NextAction.CLICK_SPOT;
         actionGateTick = tickCount;
     }
@@ -319,7 +458,7 @@ class Barb3TickRuntime implements WorldHopController.Host
     void requestStop(String reason)
     {
         log("Stopping script: " + reason);
-        panel.setRunning(false);
+        SwingUtilities.invokeLater(() -> panel.setRunning(false));
         stop();
     }
 
@@ -342,19 +481,51 @@ class Barb3TickRuntime implements WorldHopController.Host
         threeTickAccumulatedMs = 0L;
         lastKnownGameTick = -1L;
         combineAtTick = -1L;
+        handledSpotChangeTick = -1;
+        lastProcessedTick = -1;
+        approachDeadlineTick = -1L;
+        dropQueue.clear();
+        lastClickTick = -1L;
+        lastCombineTick = -1L;
+        herbUsedTick = -1L;
+        fishingXpTick = -1L;
+        plugin.fishingSpots().unlock();
+        cycleStats.abandon();
         selectedDropPattern = DropPattern.LEFT_TO_RIGHT;
         playerNameLengthForPattern = 0;
     }
 
-    private boolean ensureClientReady()
+    /**
+     * True while there is still time to act on this tick. The loop normally wakes right after the tick starts; if
+     * it woke late (GC, a slow frame) the step is held for the start of the next tick rather than sent so close to
+     * the boundary that it lands a tick late and breaks the cycle's timing.
+     */
+    private boolean earlyEnoughInTick()
+    {
+        TickClock clock = plugin.tickClock();
+        long remaining = clock.msUntilNextTick();
+        if (clock.tick() < 0 || remaining >= ACTION_BUDGET_MS + 2 * clock.jitterMs())
+        {
+            return true;
+        }
+        plugin.events().record(clock.tick(), EventLog.Type.TIMING_HOLD, (int) clock.msIntoTick(), null);
+        tickActions |= SessionRecorder.ACTION_HELD;
+        return false;
+    }
+
+    /** One recorder entry per tick the loop saw, whether or not the step acted. */
+    private void recordTick(int tick)
     {
-        Client client = client();
-        return client != null && client.getGameState() == GameState.LOGGED_IN && client.getLocalPlayer() != null;
+        int xp = snap.fishingXp();
+        int xpDelta = lastRecordedXp < 0 ? 0 : xp - lastRecordedXp;
+        lastRecordedXp = xp;
+        recorder.record(tick, nextAction.ordinal(), (modeScheduler.tickFishing() ? THREE_TICK : NORMAL).ordinal(),
+                snap.playerTile(), plugin.fishingSpots().lockedTile(), inventory().count(TAR),
+                inventory().count(suppliesManager.herbMatcher()), inventory().count(LEAPING), xpDelta, tickActions);
     }
 
-    private void updateTickCount()
+    private void updateTickCount(int gameTick)
     {
-        long gameTick = com.tonic.services.GameManager.getTickCount();
         tickCount = gameTick;
         lastKnownGameTick = gameTick;
         if (!startInitializationComplete)
@@ -363,30 +534,43 @@ class Barb3TickRuntime implements WorldHopController.Host
         }
         if (scriptStartTile == null)
         {
-            Player player = client().getLocalPlayer();
-            if (player != null)
-            {
-                scriptStartTile = player.getWorldLocation();
-                selectedDropPattern = resolveDropPatternForPlayer(player);
-                log("Dropping pattern set to " + selectedDropPattern.displayName() + " (name length=" + playerNameLengthForPattern + ")");
-            }
+            scriptStartTile = snap.playerTile();
+            selectedDropPattern = resolveDropPatternForPlayer(snap.playerName());
+            log("Dropping pattern set to " + selectedDropPattern.displayName() + " (name length=" + playerNameLengthForPattern + ")");
+        }
+    }
+
+    /**
+     * EDT: the panel became visible. While running, the next tick posts a fresh status anyway; once stopped nothing
+     * will, so the final status (e.g. "Idle" after a stop while hidden) is built here. The loop is idle then.
+     */
+    void onPanelShown()
+    {
+        if (!running)
+        {
+            updatePanelStatus();
         }
     }
 
     private void updatePanelStatus()
     {
-        if (!startInitializationComplete)
+        // Nothing is formatted while the panel is hidden; a newer status always replaces an undrawn one
+        if (!startInitializationComplete || !panel.wantsStatus())
         {
             return;
         }
         Barb3TickFishingSidePanel.StatusSnapshot snapshot = new Barb3TickFishingSidePanel.StatusSnapshot(
-                isTickFishing() ? "3Tick" : "Normal",
+                !running ? "Idle" : isTickFishing() ? "3Tick" : "Normal",
                 getFrequencyDisplay(),
                 formatThreeTickShare(),
                 formatSwitchCountdown(),
                 worldHopController.formatCurrentWorld(),
                 worldHopController.formatTimeToHop(),
-                suppliesManager.hasThreeTickSuppliesAvailable() ? "OK" : "Check"
+                suppliesManager.hasThreeTickSuppliesAvailable() ? "OK" : "Check",
+                formatPercent(cycleStats.successPercent()),
+                formatPercent(cycleStats.catchPercent()),
+                formatLatency(cycleStats.latencyPercentileMs(0.50)),
+                formatLatency(cycleStats.latencyPercentileMs(0.95))
         );
         panel.updateStatus(snapshot);
     }
@@ -425,12 +609,8 @@ class Barb3TickRuntime implements WorldHopController.Host
         {
             threeTickTime += Math.max(0L, now - currentModeEnteredAtMs);
         }
-        double share = (double) threeTickTime / (double) total * 100.0;
-        if (share < 0.0)
-        {
-            share = 0.0;
-        }
-        return String.format(Locale.ENGLISH, "%.1f%%", share);
+        long tenths = Math.max(0L, threeTickTime * 1000L / total);
+        return tenths / 10L + "." + tenths % 10L + "%";
     }
 
     private void applyMode(FishingMode mode)
@@ -442,7 +622,8 @@ class Barb3TickRuntime implements WorldHopController.Host
             threeTickAccumulatedMs += Math.max(0L, now - currentModeEnteredAtMs);
         }
         modeScheduler.setFishingMode(mode);
-        log("Mode switched to " + mode.name().toLowerCase(Locale.ENGLISH));
+        cycleStats.abandon();
+        event(EventLog.Type.MODE_SWITCHED, 0, mode);
         currentModeEnteredAtMs = now;
     }
 
@@ -474,8 +655,7 @@ class Barb3TickRuntime implements WorldHopController.Host
         modeScheduler.clearQueue();
         if (modeScheduler.tickFishing())
         {
-            combineAtTick = tickCount + 2;
-            nextAction = NextAction.WAIT_FOR_COMBINE;
+            beginThreeTickCycle();
         }
         else
         {
@@ -496,9 +676,8 @@ class Barb3TickRuntime implements WorldHopController.Host
             consumeSwitchQueueAfterClick();
             if (modeScheduler.tickFishing())
             {
-                combineAtTick = tickCount + 2;
+                beginThreeTickCycle();
                 actionGateTick = tickCount;
-                nextAction = NextAction.WAIT_FOR_COMBINE;
             }
             else
             {
@@ -513,6 +692,49 @@ class Barb3TickRuntime implements WorldHopController.Host
         }
     }
 
+    /** The click that just went out opens a 3-tick cycle: combine two ticks from now. */
+    private void beginThreeTickCycle()
+    {
+        combineAtTick = tickCount + 2;
+        nextAction = NextAction.WAIT_FOR_COMBINE;
+        lastClickTick = tickCount;
+        cycleStats.click(tickCount, plugin.tickClock().msIntoTick());
+    }
+
+    /**
+     * Catches a cycle that slipped on the tick after the input that missed, from what the client has already
+     * reported, and re-enters the cycle at the step that was lost instead of letting it run out and start over:
+     * <ul>
+     * <li>a click that did not take (next tick: not fishing, not interacting, not walking) is re-sent now and the
+     * combine moves with it;</li>
+     * <li>a combine that did not take (next tick: herb still there, no XP, still on the spot) is not re-sent: this
+     * is the tick the next click is due, and a late combine would push every later cycle back a tick. The cycle is
+     * recorded as skipped and the click goes out on schedule.</li>
+     * </ul>
+     */
+    private void resyncIfDesynced()
+    {
+        if (!modeScheduler.tickFishing())
+        {
+            return;
+        }
+        if (nextAction == NextAction.WAIT_FOR_COMBINE && tickCount == lastClickTick + 1 && snap.idle() && adjacentToSpot())
+        {
+            event(EventLog.Type.RESYNC_CLICK, 0, null);
+            cycleStats.resynced(CycleStats.Cause.INPUT_MISSED);
+            nextAction = NextAction.CLICK_SPOT;
+            combineAtTick = -1L;
+            actionGateTick = tickCount - 1;
+            return;
+        }
+        if (nextAction == NextAction.CLICK_SPOT && tickCount == lastCombineTick + 1
+                && herbUsedTick <= lastCombineTick && fishingXpTick <= lastCombineTick && snap.interacting() != null)
+        {
+            event(EventLog.Type.COMBINE_SKIPPED, 0, null);
+            cycleStats.skipped(CycleStats.Cause.INPUT_MISSED);
+        }
+    }
+
     private void handleWaitForCombine()
     {
         if (!modeScheduler.tickFishing())
@@ -527,6 +749,21 @@ class Barb3TickRuntime implements WorldHopController.Host
         {
             combineAtTick = tickCount + 2;
         }
+        if (!adjacentToSpot())
+        {
+            // Still walking to the spot: the combine counts from arrival, and a click that never arrives is redone
+            if (tickCount > approachDeadlineTick)
+            {
+                event(EventLog.Type.NOT_REACHED, 0, null);
+                cycleStats.fail(CycleStats.Cause.NOT_REACHED);
+                nextAction = NextAction.CLICK_SPOT;
+                combineAtTick = -1L;
+                actionGateTick = tickCount - 1;
+                return;
+            }
+            combineAtTick = Math.max(combineAtTick, tickCount + 1);
+            return;
+        }
         if (tickCount < combineAtTick)
         {
             return;
@@ -544,22 +781,27 @@ class Barb3TickRuntime implements WorldHopController.Host
             return;
         }
         TabsAPI.open(com.tonic.data.Tab.INVENTORY_TAB);
-        String herbName = suppliesManager.herbName();
-        ItemEx tar = InventoryQuery.fromInventoryId(InventoryID.INV)
-                .withName("Swamp tar")
-                .first();
-        ItemEx herb = InventoryQuery.fromInventoryId(InventoryID.INV)
-                .withName(herbName)
-                .first();
+        // Item handles are only looked up once the model says both are there
+        DefinitionCache.Matcher herbMatcher = suppliesManager.herbMatcher();
+        boolean present = inventory().contains(TAR) && inventory().contains(herbMatcher);
+        ItemEx tar = present ? InventoryModel.firstHandle(TAR) : null;
+        ItemEx herb = present ? InventoryModel.firstHandle(herbMatcher) : null;
         boolean success = tar != null && herb != null;
         if (success)
         {
             InventoryAPI.useOn(tar, herb);
-            log("t=" + tickCount + " combining: used tar on herb");
+            tickActions |= SessionRecorder.ACTION_COMBINE;
+            lastCombineTick = tickCount;
+            cycleStats.combine(tickCount, plugin.tickClock().msIntoTick());
+            event(EventLog.Type.COMBINED, 0, null);
             nextAction = NextAction.DROP_ONE;
-            Delays.wait(ThreadLocalRandom.current().nextInt(20, 36));
+            // Same tick, no pause: the client sends both inputs in order
             handleDropOne();
         }
+        else
+        {
+            cycleStats.fail(CycleStats.Cause.MISSING_HERB);
+        }
         combineAtTick = -1L;
         actionGateTick = tickCount;
     }
@@ -568,9 +810,11 @@ class Barb3TickRuntime implements WorldHopController.Host
     {
         nextAction = NextAction.CLICK_SPOT;
         boolean success = dropOneLeapingFish();
+        // Nothing to drop is still an on-time drop step; it just has no latency to sample
+        cycleStats.drop(tickCount, success ? plugin.tickClock().msIntoTick() : -1L);
         if (success)
         {
-            log("t=" + tickCount + " dropping: dropped one leaping fish");
+            event(EventLog.Type.DROPPED_ONE, 0, null);
         }
         combineAtTick = -1L;
         actionGateTick = tickCount;
@@ -582,15 +826,13 @@ class Barb3TickRuntime implements WorldHopController.Host
         {
             return;
         }
-        if (InventoryAPI.isFull())
+        if (!dropQueue.isEmpty() || inventory().isFull())
         {
-            randomizedDropAllLeapingFish();
-            actionGateTick = tickCount;
+            dropLeapingFishBatch();
             return;
         }
 
-        Player player = client().getLocalPlayer();
-        if (player != null && player.getAnimation() != -1 && currentFishSpot != null)
+        if (snap.animation() != -1 && currentFishSpot != null)
         {
             return;
         }
@@ -603,8 +845,8 @@ class Barb3TickRuntime implements WorldHopController.Host
         }
         else
         {
-            handleClickSpotFailure();
             actionGateTick = tickCount;
+            handleClickSpotFailure();
         }
     }
 
@@ -613,158 +855,151 @@ class Barb3TickRuntime implements WorldHopController.Host
         currentFishSpot = findSpotAtTargetOrNearest();
         if (currentFishSpot == null)
         {
-            log("No fishing spot found");
-            return false;
-        }
-        targetSpotTile = currentFishSpot.getWorldLocation();
-
-        Player local = client().getLocalPlayer();
-        if (local == null)
-        {
+            event(EventLog.Type.NO_SPOT, 0, null);
             return false;
         }
-        if (targetSpotTile.distanceTo(local.getWorldLocation()) >= 5)
+        targetSpotTile = plugin.fishingSpots().lockedTile();
+        int spotDistance = targetSpotTile == null ? -1 : targetSpotTile.distanceTo(snap.playerTile());
+        if (spotDistance < 0 || spotDistance >= 5)
         {
-            log("Moved far away from target spot, repositioning");
+            event(EventLog.Type.SPOT_TOO_FAR, spotDistance, null);
             return false;
         }
 
         ClickManagerUtil.queueClickBox(currentFishSpot);
         NpcAPI.interact(currentFishSpot, "Use-rod");
-        log("t=" + tickCount + " fishing: clicked spot (source=" + lastSpotSource + ")");
-        if (local.getWorldLocation().distanceTo(targetSpotTile) > 1)
-        {
-            Delays.waitUntil(() -> {
-                Player player = client().getLocalPlayer();
-                return player != null && player.getWorldLocation().distanceTo(targetSpotTile) <= 1;
-            }, 1500);
-        }
+        tickActions |= SessionRecorder.ACTION_CLICK;
+        event(EventLog.Type.CLICKED_SPOT, 0, lastSpotSource);
+        approachDeadlineTick = tickCount + APPROACH_TICKS;
         return true;
     }
 
+    private boolean adjacentToSpot()
+    {
+        return targetSpotTile == null || snap.playerTile().distanceTo(targetSpotTile) <= 1;
+    }
+
     private NPC findSpotAtTargetOrNearest()
     {
-        if (targetSpotTile != null)
-        {
-            NPC locked = new NpcQuery()
-                    .withName("Fishing spot")
-                    .withAction("Use-rod")
-                    .atLocation(targetSpotTile)
-                    .first();
-            if (locked != null)
-            {
-                lastSpotSource = "locked";
-                return locked;
-            }
-        }
+        FishingSpotTracker spots = plugin.fishingSpots();
+        NPC spot = spots.lockOrNearest(snap.playerTile());
+        lastSpotSource = spots.lastSource();
+        return spot;
+    }
 
-        NPC nearest = new NpcQuery()
-                .withName("Fishing spot")
-                .withAction("Use-rod")
-                .sortNearest()
-                .first();
-        if (nearest != null)
+    /**
+     * The tracker re-targets on the tick the locked spot moves or despawns; a cycle still waiting on the old spot
+     * would only waste its combine, so go straight back to clicking the new one this tick.
+     */
+    private void retargetIfSpotMoved()
+    {
+        int changed = plugin.fishingSpots().lockChangedTick();
+        if (changed < 0 || changed == handledSpotChangeTick)
         {
-            targetSpotTile = nearest.getWorldLocation();
-            lastSpotSource = "nearest";
+            return;
         }
-        else
+        handledSpotChangeTick = changed;
+        currentFishSpot = plugin.fishingSpots().locked();
+        targetSpotTile = plugin.fishingSpots().lockedTile();
+        if (nextAction == NextAction.WAIT_FOR_COMBINE)
         {
-            lastSpotSource = "none";
+            event(EventLog.Type.SPOT_MOVED, 0, plugin.fishingSpots().lastSource());
+            cycleStats.fail(CycleStats.Cause.SPOT_MOVED);
+            nextAction = NextAction.CLICK_SPOT;
+            combineAtTick = -1L;
+            actionGateTick = tickCount - 1;
         }
-        return nearest;
     }
 
     private void handleClickSpotFailure()
     {
-        Player local = client().getLocalPlayer();
-        if (local == null)
-        {
-            return;
-        }
-        if (local.getAnimation() != -1 && currentFishSpot == null)
+        if (snap.animation() != -1 && currentFishSpot == null)
         {
             stepToAdjacentTile();
-            Delays.wait(ThreadLocalRandom.current().nextInt(1000, 5001));
+            actionGateTick = tickCount + randomTicks(2, 8);
             return;
         }
-        if (local.getAnimation() == -1 && (currentFishSpot == null))
+        if (snap.animation() == -1 && (currentFishSpot == null))
         {
             if (scriptStartTile == null)
             {
-                scriptStartTile = local.getWorldLocation();
+                scriptStartTile = snap.playerTile();
             }
-            if (!local.getWorldLocation().equals(scriptStartTile))
+            if (!snap.playerTile().equals(scriptStartTile))
             {
                 MovementAPI.walkToWorldPoint(scriptStartTile);
-                log("t=" + tickCount + " moving: returning to start tile " + scriptStartTile);
+                tickActions |= SessionRecorder.ACTION_WALK;
+                event(EventLog.Type.RETURN_TO_START, 0, scriptStartTile);
             }
-            Delays.wait(ThreadLocalRandom.current().nextInt(500, 5001));
+            actionGateTick = tickCount + randomTicks(1, 8);
             return;
         }
         if (currentFishSpot != null)
         {
             MovementAPI.walkTowards(currentFishSpot.getWorldLocation());
+            tickActions |= SessionRecorder.ACTION_WALK;
         }
     }
 
-    private void randomizedDropAllLeapingFish()
+    /**
+     * Drops a full inventory of leaping fish a few per tick in the player's drop pattern, then idles a random
+     * number of ticks; the pacing that used to come from sleeping between drops now comes from the tick boundary.
+     */
+    private void dropLeapingFishBatch()
     {
-        List<ItemEx> leapingFish = InventoryQuery.fromInventoryId(InventoryID.INV)
-                .withNameContains("Leaping")
-                .collect();
-        if (leapingFish.isEmpty())
+        if (dropQueue.isEmpty())
         {
-            return;
-        }
-        List<ItemEx> dropOrder = selectedDropPattern.orderItems(leapingFish);
-        int dropCount = 0;
-        for (ItemEx fish : dropOrder)
-        {
-            if (fish == null)
+            if (!inventory().contains(LEAPING))
+            {
+                return;
+            }
+            for (ItemEx fish : selectedDropPattern.orderItems(InventoryModel.handles(LEAPING)))
+            {
+                if (fish != null)
+                {
+                    dropQueue.add(fish);
+                }
+            }
+            if (dropQueue.isEmpty())
             {
-                continue;
+                return;
             }
-            InventoryAPI.interact(fish, "Drop");
-            dropCount++;
-            Delays.wait(ThreadLocalRandom.current().nextInt(25, 221));
+            event(EventLog.Type.DROP_BATCH, dropQueue.size(), selectedDropPattern.displayName());
         }
-        Delays.wait(ThreadLocalRandom.current().nextInt(50, 3001));
-        if (dropCount > 0)
+        int batch = ThreadLocalRandom.current().nextInt(3, 7);
+        for (int i = 0; i < batch && !dropQueue.isEmpty(); i++)
         {
-            log("t=" + tickCount + " dropping: dropped " + dropCount + " leaping fish using " + selectedDropPattern.displayName());
+            InventoryAPI.interact(dropQueue.poll(), "Drop");
+            tickActions |= SessionRecorder.ACTION_DROP;
         }
+        actionGateTick = dropQueue.isEmpty() ? tickCount + randomTicks(0, 5) : tickCount;
+    }
+
+    private static int randomTicks(int min, int max)
+    {
+        return ThreadLocalRandom.current().nextInt(min, max + 1);
     }
 
     private boolean dropOneLeapingFish()
     {
-        int count = InventoryQuery.fromInventoryId(InventoryID.INV)
-                .withNameContains("Leaping")
-                .count();
+        int count = inventory().count(LEAPING);
         if (count <= 1)
         {
             return false;
         }
-        ItemEx fish = InventoryQuery.fromInventoryId(InventoryID.INV)
-                .withNameContains("Leaping")
-                .first();
+        ItemEx fish = InventoryModel.firstHandle(LEAPING);
         if (fish == null)
         {
             return false;
         }
         InventoryAPI.interact(fish, "Drop");
-        Delays.wait(ThreadLocalRandom.current().nextInt(45, 121));
+        tickActions |= SessionRecorder.ACTION_DROP;
         return true;
     }
 
     private boolean stepToAdjacentTile()
     {
-        Player local = client().getLocalPlayer();
-        if (local == null)
-        {
-            return false;
-        }
-        WorldPoint me = local.getWorldLocation();
+        WorldPoint me = snap.playerTile();
         int plane = me.getPlane();
         int[][] offsets = {
                 {1, 0}, {-1, 0}, {0, 1}, {0, -1},
@@ -774,51 +1009,41 @@ class Barb3TickRuntime implements WorldHopController.Host
         {
             WorldPoint candidate = new WorldPoint(me.getX() + offset[0], me.getY() + offset[1], plane);
             MovementAPI.walkToWorldPoint(candidate);
-            log("Stepping to nearby tile: " + candidate);
-            Delays.tick(1);
+            tickActions |= SessionRecorder.ACTION_WALK;
+            event(EventLog.Type.STEP_ASIDE, 0, candidate);
             return true;
         }
         return false;
     }
 
-    private boolean hasLevelRequirements()
+    private static boolean hasLevelRequirements(TickSnapshot snapshot)
     {
-        Client client = client();
-        return client.getRealSkillLevel(Skill.FISHING) >= 48
-                && client.getRealSkillLevel(Skill.STRENGTH) >= 15
-                && client.getRealSkillLevel(Skill.AGILITY) >= 15;
+        return snapshot.fishingLevel() >= 48
+                && snapshot.strengthLevel() >= 15
+                && snapshot.agilityLevel() >= 15;
     }
 
     private String missingCoreItem()
     {
-        if (!hasItem("Feather"))
+        if (!inventory().contains(FEATHER))
         {
             return "Feather";
         }
-        if (!hasItem("Barbarian rod"))
+        if (!inventory().contains(BARBARIAN_ROD))
         {
             return "Barbarian rod";
         }
         return "";
     }
 
-    private boolean hasItem(String name)
-    {
-        ItemEx item = InventoryQuery.fromInventoryId(InventoryID.INV)
-                .withName(name)
-                .first();
-        return item != null;
-    }
-
     private boolean canBreak()
     {
         return nextAction == NextAction.WAIT_FOR_COMBINE || nextAction == NextAction.COMBINE_HERB || !modeScheduler.tickFishing();
     }
 
-    private DropPattern resolveDropPatternForPlayer(Player player)
+    private DropPattern resolveDropPatternForPlayer(String rawName)
     {
         playerNameLengthForPattern = 0;
-        String rawName = player.getName();
         if (rawName == null || rawName.isEmpty())
         {
             return DROP_PATTERNS.get(0);
@@ -828,6 +1053,37 @@ class Barb3TickRuntime implements WorldHopController.Host
         return DROP_PATTERNS.get(patternIndex);
     }
 
+    private void onInventoryDelta(InventoryModel.Delta delta)
+    {
+        DefinitionCache.Matcher herb = suppliesManager.herbMatcher();
+        for (Integer id : delta.removed().keySet())
+        {
+            if (herb.matches(id))
+            {
+                herbUsedTick = delta.tick;
+                break;
+            }
+        }
+        for (Integer id : delta.added().keySet())
+        {
+            if (LEAPING.matches(id))
+            {
+                cycleStats.landed(delta.tick);
+                return;
+            }
+        }
+    }
+
+    private static String formatPercent(int percent)
+    {
+        return percent < 0 ? "—" : percent + "%";
+    }
+
+    private static String formatLatency(int ms)
+    {
+        return ms < 0 ? "—" : ms + "ms";
+    }
+
     private static String formatMs(long msRemaining)
     {
         if (msRemaining <= 0)
@@ -835,9 +1091,12 @@ class Barb3TickRuntime implements WorldHopController.Host
             return "00:00";
         }
         long totalSeconds = msRemaining / 1000L;
-        long minutes = totalSeconds / 60L;
-        long seconds = totalSeconds % 60L;
-        return String.format("%02d:%02d", minutes, seconds);
+        return twoDigits(totalSeconds / 60L) + ":" + twoDigits(totalSeconds % 60L);
+    }
+
+    static String twoDigits(long value)
+    {
+        return value < 10L ? "0" + value : Long.toString(value);
     }
 
     private enum DropPattern
@@ -0,0 +1,337 @@
+package com.illumine.barb3tickfishing;
+
+import java.util.Arrays;
+
+/**
+ * Outcome and timing of the last {@link #WINDOW} 3-tick cycles (click spot, combine, drop one). A cycle is on time
+ * when the combine goes out exactly two ticks after the click and the drop on the same tick as the combine; it is
+ * caught when fishing XP or a leaping fish lands by the tick the next click is due. Action latency is how far into
+ * its tick each action was issued. Everything lives in fixed-size primitive rings, so recording never allocates;
+ * evicted samples are subtracted from the running counts and histogram buckets as they are overwritten.
+ */
+final class CycleStats
+{
+    enum Cause
+    {
+        SPOT_MOVED("spot moved"),
+        MISSING_HERB("missing herb"),
+        TICK_OVERRUN("tick overrun"),
+        NOT_REACHED("spot not reached"),
+        INPUT_MISSED("input not registered");
+
+        private final String label;
+
+        Cause(String label)
+        {
+            this.label = label;
+        }
+
+        String label()
+        {
+            return label;
+        }
+    }
+
+    static final int WINDOW = 256;
+    private static final int LATENCY_SAMPLES = 768;
+    private static final int BUCKET_MS = 5;
+    // 0-600 ms in 5 ms buckets; the last one also takes anything later
+    private static final int BUCKETS = 121;
+    private static final int COMBINE_OFFSET = 2;
+    private static final int CATCH_OFFSET = 3;
+
+    // Outcome per cycle: OK / OK_CAUGHT, or FAILED_BASE + cause ordinal
+    private static final byte OK = 0;
+    private static final byte OK_CAUGHT = 1;
+    private static final byte FAILED_BASE = 2;
+
+    private final byte[] outcomes = new byte[WINDOW];
+    private int outcomeNext = 0;
+    private int outcomeCount = 0;
+    private int okCount = 0;
+    private int caughtCount = 0;
+    private final int[] causeCounts = new int[Cause.values().length];
+
+    private final short[] latencies = new short[LATENCY_SAMPLES];
+    private int latencyNext = 0;
+    private int latencyCount = 0;
+    private final int[] latencyBuckets = new int[BUCKETS];
+
+    private long totalCycles = 0L;
+    private long resyncs = 0L;
+    private long skips = 0L;
+
+    // The open cycle, if clickTick >= 0
+    private long clickTick = -1L;
+    private long combineTick = -1L;
+    private long dropTick = -1L;
+    private long landedTick = -1L;
+    private Cause failure = null;
+    private Cause lastFailure = null;
+
+    /** Closes any open cycle and opens one for a click sent {@code msIntoTick} into {@code tick}. */
+    synchronized void click(long tick, long msIntoTick)
+    {
+        close();
+        clickTick = tick;
+        sample(msIntoTick);
+    }
+
+    synchronized void combine(long tick, long msIntoTick)
+    {
+        if (clickTick < 0)
+        {
+            return;
+        }
+        combineTick = tick;
+        if (tick != clickTick + COMBINE_OFFSET && failure == null)
+        {
+            failure = Cause.TICK_OVERRUN;
+        }
+        sample(msIntoTick);
+    }
+
+    synchronized void drop(long tick, long msIntoTick)
+    {
+        if (clickTick < 0)
+        {
+            return;
+        }
+        dropTick = tick;
+        if (tick != combineTick && failure == null)
+        {
+            failure = Cause.TICK_OVERRUN;
+        }
+        sample(msIntoTick);
+    }
+
+    /** Fishing XP or a leaping fish arrived on {@code tick}; only the first landing counts for the open cycle. */
+    synchronized void landed(long tick)
+    {
+        if (clickTick >= 0 && landedTick < 0 && tick > clickTick)
+        {
+            landedTick = tick;
+        }
+    }
+
+    /** Marks the open cycle failed but keeps it open: the engine re-entered it at the right phase instead. */
+    synchronized void resynced(Cause cause)
+    {
+        if (clickTick < 0)
+        {
+            return;
+        }
+        if (failure == null)
+        {
+            failure = cause;
+        }
+        resyncs++;
+    }
+
+    /**
+     * Marks the open cycle failed but keeps it open: the lost step was skipped so the next cycle starts on schedule,
+     * and the next click closes this one.
+     */
+    synchronized void skipped(Cause cause)
+    {
+        if (clickTick < 0)
+        {
+            return;
+        }
+        if (failure == null)
+        {
+            failure = cause;
+        }
+        skips++;
+    }
+
+    /** Fails and closes the open cycle. */
+    synchronized void fail(Cause cause)
+    {
+        if (clickTick < 0)
+        {
+            return;
+        }
+        if (failure == null)
+        {
+            failure = cause;
+        }
+        close();
+    }
+
+    /** Closes the open cycle without judging it (mode switch, stop, hop): it never had a chance to finish. */
+    synchronized void abandon()
+    {
+        clearCycle();
+    }
+
+    synchronized void reset()
+    {
+        clearCycle();
+        Arrays.fill(outcomes, (byte) 0);
+        outcomeNext = 0;
+        outcomeCount = 0;
+        okCount = 0;
+        caughtCount = 0;
+        Arrays.fill(causeCounts, 0);
+        Arrays.fill(latencies, (short) 0);
+        latencyNext = 0;
+        latencyCount = 0;
+        Arrays.fill(latencyBuckets, 0);
+        totalCycles = 0L;
+        resyncs = 0L;
+        skips = 0L;
+        lastFailure = null;
+    }
+
+    /** Cycles judged since the last reset, including those already rolled out of the window. */
+    synchronized long totalCycles()
+    {
+        return totalCycles;
+    }
+
+    /** Cycles re-entered mid-way after a missed input, since the last reset. */
+    synchronized long resyncs()
+    {
+        return resyncs;
+    }
+
+    /** Cycles whose lost step was skipped to keep the next click on schedule, since the last reset. */
+    synchronized long skips()
+    {
+        return skips;
+    }
+
+    /** Share of windowed cycles that ran on time, 0-100, or -1 with none yet. */
+    synchronized int successPercent()
+    {
+        return outcomeCount == 0 ? -1 : (int) Math.round(okCount * 100.0 / outcomeCount);
+    }
+
+    /** Share of windowed cycles whose catch landed by the expected tick, 0-100, or -1 with none yet. */
+    synchronized int catchPercent()
+    {
+        return outcomeCount == 0 ? -1 : (int) Math.round(caughtCount * 100.0 / outcomeCount);
+    }
+
+    synchronized int failures(Cause cause)
+    {
+        return causeCounts[cause.ordinal()];
+    }
+
+    synchronized Cause lastFailure()
+    {
+        return lastFailure;
+    }
+
+    /** Action latency (ms into the tick) at percentile {@code p} in (0, 1], to bucket resolution, or -1. */
+    synchronized int latencyPercentileMs(double p)
+    {
+        if (latencyCount == 0)
+        {
+            return -1;
+        }
+        int rank = (int) Math.ceil(p * latencyCount);
+        int seen = 0;
+        for (int b = 0; b < BUCKETS; b++)
+        {
+            seen += latencyBuckets[b];
+            if (seen >= rank)
+            {
+                return (b + 1) * BUCKET_MS;
+            }
+        }
+        return BUCKETS * BUCKET_MS;
+    }
+
+    private void sample(long msIntoTick)
+    {
+        if (msIntoTick < 0)
+        {
+            return;
+        }
+        short ms = (short) Math.min(msIntoTick, Short.MAX_VALUE);
+        if (latencyCount == LATENCY_SAMPLES)
+        {
+            latencyBuckets[bucket(latencies[latencyNext])]--;
+        }
+        else
+        {
+            latencyCount++;
+        }
+        latencies[latencyNext] = ms;
+        latencyBuckets[bucket(ms)]++;
+        latencyNext = (latencyNext + 1) % LATENCY_SAMPLES;
+    }
+
+    private static int bucket(int ms)
+    {
+        return Math.min(BUCKETS - 1, ms / BUCKET_MS);
+    }
+
+    private void close()
+    {
+        if (clickTick < 0)
+        {
+            return;
+        }
+        Cause cause = failure;
+        if (cause == null && (combineTick < 0 || dropTick < 0))
+        {
+            // Closed by the next click before the combine and drop went out
+            cause = Cause.TICK_OVERRUN;
+        }
+        byte outcome;
+        if (cause != null)
+        {
+            outcome = (byte) (FAILED_BASE + cause.ordinal());
+            lastFailure = cause;
+        }
+        else
+        {
+            boolean caught = landedTick > 0 && landedTick <= clickTick + CATCH_OFFSET;
+            outcome = caught ? OK_CAUGHT : OK;
+        }
+        record(outcome);
+        clearCycle();
+    }
+
+    private void record(byte outcome)
+    {
+        if (outcomeCount == WINDOW)
+        {
+            count(outcomes[outcomeNext], -1);
+        }
+        else
+        {
+            outcomeCount++;
+        }
+        outcomes[outcomeNext] = outcome;
+        count(outcome, 1);
+        outcomeNext = (outcomeNext + 1) % WINDOW;
+        totalCycles++;
+    }
+
+    private void count(byte outcome, int delta)
+    {
+        if (outcome >= FAILED_BASE)
+        {
+            causeCounts[outcome - FAILED_BASE] += delta;
+            return;
+        }
+        okCount += delta;
+        if (outcome == OK_CAUGHT)
+        {
+            caughtCount += delta;
+        }
+    }
+
+    private void clearCycle()
+    {
+        clickTick = -1L;
+        combineTick = -1L;
+        dropTick = -1L;
+        landedTick = -1L;
+        failure = null;
+    }
+}
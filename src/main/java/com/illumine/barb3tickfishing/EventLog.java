@@ -0,0 +1,341 @@
+package com.illumine.barb3tickfishing;
+
+import com.tonic.Logger;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Script log that keeps string building off the script and client threads. Callers record a tick, an event type
+ * and a couple of primitive fields into a preallocated ring; a daemon thread drains it and does all formatting.
+ * Every type has a {@link Level}; nothing is formatted unless its level is enabled, and DEBUG is only enabled when
+ * {@link #debug} says so. DEBUG events that can repeat every tick (clicks, combines, drops, "no spot") carry a
+ * summary label: while DEBUG is off they are counted and collapsed into one summary line every
+ * {@link #SUMMARY_TICKS} ticks, written when the span ends even if nothing follows it, and on {@link #stop()}. Recording
+ * never blocks or allocates: when the drain falls a full ring behind, new events are dropped and counted.
+ */
+final class EventLog
+{
+    enum Level
+    {
+        INFO,
+        DEBUG
+    }
+
+    enum Type
+    {
+        MESSAGE(Level.INFO, null),
+        TIMING_HOLD(Level.DEBUG, "held"),
+        CLICKED_SPOT(Level.DEBUG, "clicks"),
+        SPOT_MOVED(Level.DEBUG, "spot moved"),
+        NOT_REACHED(Level.DEBUG, "not reached"),
+        COMBINED(Level.DEBUG, "combines"),
+        DROPPED_ONE(Level.DEBUG, "drops"),
+        DROP_BATCH(Level.DEBUG, "batch drops"),
+        RESYNC_CLICK(Level.DEBUG, "click resyncs"),
+        COMBINE_SKIPPED(Level.DEBUG, "combine skips"),
+        RETURN_TO_START(Level.DEBUG, "returns to start"),
+        NO_SPOT(Level.DEBUG, "no spot"),
+        SPOT_TOO_FAR(Level.DEBUG, "repositions"),
+        STEP_ASIDE(Level.DEBUG, "steps aside"),
+        MODE_SWITCHED(Level.INFO, null),
+        HOP_NO_CURRENT_WORLD(Level.INFO, null),
+        HOP_NO_CANDIDATES(Level.INFO, null),
+        HOP_ATTEMPT(Level.INFO, null),
+        HOP_SWITCHED(Level.INFO, null),
+        HOP_FAILED(Level.INFO, null);
+
+        private final Level level;
+        // Non-null if disabled events of this type are counted into the periodic summary
+        private final String summaryLabel;
+
+        Type(Level level, String summaryLabel)
+        {
+            this.level = level;
+            this.summaryLabel = summaryLabel;
+        }
+    }
+
+    static final int CAPACITY = 1024;
+    static final int SUMMARY_TICKS = 100;
+    private static final String PREFIX = "[illu3TBarb] [";
+    private static final long DRAIN_INTERVAL_MS = 250L;
+    private static final long SUMMARY_SPAN_NANOS = SUMMARY_TICKS * TickClock.NOMINAL_TICK_NANOS;
+    private static final Type[] TYPES = Type.values();
+
+    // Ring, guarded by this; ref only ever holds objects the caller already had (constant strings, tiles, enums)
+    private final int[] ticks = new int[CAPACITY];
+    private final byte[] types = new byte[CAPACITY];
+    private final int[] values = new int[CAPACITY];
+    private final Object[] refs = new Object[CAPACITY];
+    private long head = 0L;
+    private long tail = 0L;
+    private long dropped = 0L;
+    private boolean stopping = false;
+
+    // Drain thread only
+    private final int[] batchTicks = new int[CAPACITY];
+    private final byte[] batchTypes = new byte[CAPACITY];
+    private final int[] batchValues = new int[CAPACITY];
+    private final Object[] batchRefs = new Object[CAPACITY];
+    private final int[] counts = new int[TYPES.length];
+    private final StringBuilder line = new StringBuilder(160);
+    private int windowStart = -1;
+    private int windowEnd = -1;
+    private long windowOpenedNanos = 0L;
+    private long droppedInWindow = 0L;
+
+    private final BooleanSupplier debug;
+    private Thread drainer;
+
+    EventLog(BooleanSupplier debug)
+    {
+        this.debug = debug;
+    }
+
+    synchronized void start()
+    {
+        if (drainer != null)
+        {
+            return;
+        }
+        stopping = false;
+        drainer = new Thread(this::drainLoop, "illu3TBarb-log");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /** Writes out everything still queued, including a final summary, and stops the drain thread. */
+    void stop()
+    {
+        Thread thread;
+        synchronized (this)
+        {
+            thread = drainer;
+            drainer = null;
+            stopping = true;
+            notifyAll();
+        }
+        if (thread == null)
+        {
+            return;
+        }
+        try
+        {
+            thread.join(1000L);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void message(int tick, String text)
+    {
+        record(tick, Type.MESSAGE, 0, text);
+    }
+
+    synchronized void record(int tick, Type type, int value, Object ref)
+    {
+        if (head - tail == CAPACITY)
+        {
+            dropped++;
+            return;
+        }
+        int i = (int) (head % CAPACITY);
+        ticks[i] = tick;
+        types[i] = (byte) type.ordinal();
+        values[i] = value;
+        refs[i] = ref;
+        head++;
+        if (type == Type.MESSAGE)
+        {
+            // Ordinary messages are rare and someone is usually waiting to read them
+            notifyAll();
+        }
+    }
+
+    private void drainLoop()
+    {
+        while (true)
+        {
+            int n;
+            long lost;
+            boolean last;
+            synchronized (this)
+            {
+                if (head == tail && !stopping)
+                {
+                    try
+                    {
+                        wait(DRAIN_INTERVAL_MS);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        stopping = true;
+                    }
+                }
+                n = (int) (head - tail);
+                for (int k = 0; k < n; k++)
+                {
+                    int i = (int) ((tail + k) % CAPACITY);
+                    batchTicks[k] = ticks[i];
+                    batchTypes[k] = types[i];
+                    batchValues[k] = values[i];
+                    batchRefs[k] = refs[i];
+                    refs[i] = null;
+                }
+                tail = head;
+                lost = dropped;
+                dropped = 0L;
+                last = stopping && head == tail;
+            }
+            droppedInWindow += lost;
+            boolean debugEnabled = debug.getAsBoolean();
+            for (int k = 0; k < n; k++)
+            {
+                emit(batchTicks[k], TYPES[batchTypes[k]], batchValues[k], batchRefs[k], debugEnabled);
+            }
+            Arrays.fill(batchRefs, 0, n, null);
+            if (last)
+            {
+                // Whatever the last window holds goes out before the thread ends
+                flushSummary();
+                return;
+            }
+            if (windowStart >= 0 && System.nanoTime() - windowOpenedNanos >= SUMMARY_SPAN_NANOS)
+            {
+                // Quiet since the window opened (stopped, hopping, logged out): do not hold it for the next event
+                flushSummary();
+            }
+        }
+    }
+
+    private void emit(int tick, Type type, int value, Object ref, boolean debugEnabled)
+    {
+        if (type.level == Level.DEBUG && !debugEnabled)
+        {
+            // Level gate: nothing below is formatted; repetitive types still feed the summary
+            if (type.summaryLabel == null)
+            {
+                return;
+            }
+            if (windowStart >= 0 && tick - windowStart >= SUMMARY_TICKS)
+            {
+                flushSummary();
+            }
+            if (windowStart < 0)
+            {
+                windowStart = tick;
+                windowOpenedNanos = System.nanoTime();
+            }
+            windowEnd = tick;
+            counts[type.ordinal()]++;
+            return;
+        }
+        // Keep the summary of what came before ahead of the line that follows it
+        flushSummary();
+        line.setLength(0);
+        line.append(PREFIX).append(tick).append("] ");
+        switch (type)
+        {
+            case MESSAGE:
+                line.append(ref);
+                break;
+            case TIMING_HOLD:
+                line.append("timing: woke ").append(value).append("ms into tick, holding step for next tick");
+                break;
+            case CLICKED_SPOT:
+                line.append("fishing: clicked spot (source=").append(ref).append(')');
+                break;
+            case SPOT_MOVED:
+                line.append("fishing: spot moved, re-clicking (source=").append(ref).append(')');
+                break;
+            case NOT_REACHED:
+                line.append("fishing: did not reach spot, re-clicking");
+                break;
+            case COMBINED:
+                line.append("combining: used tar on herb");
+                break;
+            case DROPPED_ONE:
+                line.append("dropping: dropped one leaping fish");
+                break;
+            case DROP_BATCH:
+                line.append("dropping: dropping ").append(value).append(" leaping fish using ").append(ref);
+                break;
+            case RESYNC_CLICK:
+                line.append("resync: click did not register, re-clicking");
+                break;
+            case COMBINE_SKIPPED:
+                line.append("resync: combine did not register, skipping it to click on schedule");
+                break;
+            case RETURN_TO_START:
+                line.append("moving: returning to start tile ").append(ref);
+                break;
+            case NO_SPOT:
+                line.append("fishing: no fishing spot found");
+                break;
+            case SPOT_TOO_FAR:
+                line.append("fishing: moved ").append(value).append(" tiles from target spot, repositioning");
+                break;
+            case STEP_ASIDE:
+                line.append("moving: stepping to nearby tile ").append(ref);
+                break;
+            case MODE_SWITCHED:
+                line.append("Mode switched to ").append(((FishingMode) ref).name().toLowerCase(Locale.ENGLISH));
+                break;
+            case HOP_NO_CURRENT_WORLD:
+                line.append("Unable to resolve current world for hopping");
+                break;
+            case HOP_NO_CANDIDATES:
+                line.append("No eligible worlds available for hopping");
+                break;
+            case HOP_ATTEMPT:
+                line.append("Attempting to hop to world ").append(value);
+                break;
+            case HOP_SWITCHED:
+                line.append("World-hop: switched to world ").append(value);
+                break;
+            case HOP_FAILED:
+                line.append("World-hop attempts failed");
+                break;
+        }
+        Logger.info(line.toString());
+    }
+
+    private void flushSummary()
+    {
+        if (windowStart < 0 && droppedInWindow == 0L)
+        {
+            return;
+        }
+        line.setLength(0);
+        line.append(PREFIX);
+        if (windowStart >= 0)
+        {
+            line.append(windowStart).append('-').append(windowEnd);
+        }
+        line.append("] summary:");
+        boolean first = true;
+        for (Type type : TYPES)
+        {
+            int count = counts[type.ordinal()];
+            if (count == 0)
+            {
+                continue;
+            }
+            line.append(first ? " " : ", ").append(count).append(' ').append(type.summaryLabel);
+            first = false;
+        }
+        if (droppedInWindow > 0L)
+        {
+            line.append(first ? " " : ", ").append(droppedInWindow).append(" log events dropped");
+        }
+        Logger.info(line.toString());
+        Arrays.fill(counts, 0);
+        windowStart = -1;
+        windowEnd = -1;
+        droppedInWindow = 0L;
+    }
+}
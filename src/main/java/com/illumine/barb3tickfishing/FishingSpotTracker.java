@@ -0,0 +1,184 @@
+package com.illumine.barb3tickfishing;
+
+import com.illumine.util.DefinitionCache;
+import com.illumine.util.SpatialGrid;
+import com.tonic.queries.NpcQuery;
+import net.runelite.api.NPC;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.List;
+
+/**
+ * Use-rod fishing spots in the scene and the spot the script is locked onto, kept from NPC spawn, despawn and
+ * change events instead of querying per click. On each game tick the lock is checked against its NPC: if the spot
+ * moved the lock follows it, if it despawned the lock jumps to the spot nearest its old tile. Either way the tick is
+ * recorded so the engine can re-click on that tick. Written on the client thread, read from the loop.
+ */
+final class FishingSpotTracker
+{
+    static final String NAME = "Fishing spot";
+    static final String ACTION = "Use-rod";
+    private static final DefinitionCache.Matcher SPOT = DefinitionCache.NPCS.namedWithAction(NAME, ACTION);
+
+    private final SpatialGrid<NPC> spots = new SpatialGrid<>();
+    private boolean seeded = false;
+
+    private NPC locked = null;
+    private WorldPoint lockedTile = null;
+    private boolean lockLost = false;
+    private int lockChangedTick = -1;
+    private String lastSource = "";
+
+    static boolean isFishingSpot(NPC npc)
+    {
+        return npc != null && SPOT.matches(npc.getId());
+    }
+
+    synchronized void onSpawned(NPC npc)
+    {
+        if (isFishingSpot(npc))
+        {
+            spots.put(npc, npc.getWorldLocation());
+        }
+    }
+
+    synchronized void onDespawned(NPC npc)
+    {
+        if (spots.remove(npc) && npc == locked)
+        {
+            // Re-targeted on the next tick, once every despawn and spawn of this tick has arrived
+            lockLost = true;
+        }
+    }
+
+    synchronized void onChanged(NPC npc)
+    {
+        if (isFishingSpot(npc))
+        {
+            spots.put(npc, npc.getWorldLocation());
+        }
+        else
+        {
+            onDespawned(npc);
+        }
+    }
+
+    /** Re-files moved spots and follows or replaces the lock. Client thread, on GameTick. */
+    synchronized void onTick(int tick)
+    {
+        // Spots can relocate without respawning; there are only a handful, so re-file them every tick
+        for (NPC npc : spots.items())
+        {
+            spots.put(npc, npc.getWorldLocation());
+        }
+        if (locked == null)
+        {
+            return;
+        }
+        if (lockLost)
+        {
+            lockLost = false;
+            NPC next = spots.nearest(lockedTile, null);
+            locked = next;
+            lockedTile = next == null ? null : next.getWorldLocation();
+            lastSource = next == null ? "none" : "moved";
+            lockChangedTick = tick;
+            return;
+        }
+        WorldPoint now = locked.getWorldLocation();
+        if (now != null && !now.equals(lockedTile))
+        {
+            lockedTile = now;
+            lastSource = "moved";
+            lockChangedTick = tick;
+        }
+    }
+
+    /** Drops every spot and the lock; the scene is about to reload. */
+    synchronized void clear()
+    {
+        spots.clear();
+        seeded = false;
+        unlock();
+    }
+
+    synchronized void unlock()
+    {
+        locked = null;
+        lockedTile = null;
+        lockLost = false;
+        lockChangedTick = -1;
+        lastSource = "";
+    }
+
+    /** The locked spot if it is still there, else the spot nearest {@code from}, which becomes the lock. */
+    NPC lockOrNearest(WorldPoint from)
+    {
+        seedIfNeeded();
+        return pick(from);
+    }
+
+    private synchronized NPC pick(WorldPoint from)
+    {
+        if (locked != null && !lockLost)
+        {
+            lastSource = "locked";
+            return locked;
+        }
+        NPC nearest = from == null ? null : spots.nearest(from, null);
+        locked = nearest;
+        lockedTile = nearest == null ? null : nearest.getWorldLocation();
+        lockLost = false;
+        lastSource = nearest == null ? "none" : "nearest";
+        return nearest;
+    }
+
+    synchronized NPC locked()
+    {
+        return lockLost ? null : locked;
+    }
+
+    synchronized WorldPoint lockedTile()
+    {
+        return lockedTile;
+    }
+
+    /** Tick on which the lock last moved or was replaced, or -1. */
+    synchronized int lockChangedTick()
+    {
+        return lockChangedTick;
+    }
+
+    /** How the last lock was chosen: locked, nearest, moved or none. */
+    synchronized String lastSource()
+    {
+        return lastSource;
+    }
+
+    synchronized int size()
+    {
+        return spots.size();
+    }
+
+    private void seedIfNeeded()
+    {
+        synchronized (this)
+        {
+            if (seeded)
+            {
+                return;
+            }
+        }
+        // Started mid-session: the spawns already happened, so pick the spots up once. Queried outside the lock,
+        // since the query may wait on the client thread, which takes the lock for events
+        List<NPC> found = new NpcQuery().withName(NAME).withAction(ACTION).collect();
+        synchronized (this)
+        {
+            for (NPC npc : found)
+            {
+                spots.put(npc, npc.getWorldLocation());
+            }
+            seeded = true;
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package com.illumine.barb3tickfishing;
+
+import com.illumine.util.DefinitionCache;
+import com.tonic.data.ItemEx;
+import com.tonic.queries.InventoryQuery;
+import net.runelite.api.Client;
+import net.runelite.api.Item;
+import net.runelite.api.ItemComposition;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.gameval.InventoryID;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Inventory contents rebuilt only when the client reports an INV container change, with counts and first slots
+ * indexed by item id and by (case-insensitive) name. Each rebuild swaps in an immutable state, so the script loop
+ * reads it without locking. Additions and removals are accumulated and handed to listeners once per game tick.
+ */
+final class InventoryModel
+{
+    static final int SIZE = 28;
+    static final int EMPTY_ID = -1;
+
+    interface Listener
+    {
+        void onInventoryDelta(Delta delta);
+    }
+
+    /** Net quantity gained and lost per item id over one game tick. */
+    static final class Delta
+    {
+        final int tick;
+        private final Map<Integer, Integer> added;
+        private final Map<Integer, Integer> removed;
+        private final Map<Integer, String> names;
+
+        private Delta(int tick, Map<Integer, Integer> added, Map<Integer, Integer> removed, Map<Integer, String> names)
+        {
+            this.tick = tick;
+            this.added = added;
+            this.removed = removed;
+            this.names = names;
+        }
+
+        Map<Integer, Integer> added()
+        {
+            return added;
+        }
+
+        Map<Integer, Integer> removed()
+        {
+            return removed;
+        }
+
+        int added(int id)
+        {
+            return added.getOrDefault(id, 0);
+        }
+
+        int removed(int id)
+        {
+            return removed.getOrDefault(id, 0);
+        }
+
+        /** True if any added or removed id satisfies the matcher. */
+        boolean touches(DefinitionCache.Matcher matcher)
+        {
+            for (Integer id : added.keySet())
+            {
+                if (matcher.matches(id))
+                {
+                    return true;
+                }
+            }
+            for (Integer id : removed.keySet())
+            {
+                if (matcher.matches(id))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Lowercase name of a changed id, or null. */
+        String nameOf(int id)
+        {
+            return names.get(id);
+        }
+
+        /** True if an item whose name contains {@code part} (case-insensitive) was added or removed. */
+        boolean touchesNameContaining(String part)
+        {
+            String needle = part.toLowerCase(Locale.ENGLISH);
+            for (String name : names.values())
+            {
+                if (name.contains(needle))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class State
+    {
+        final int[] ids = new int[SIZE];
+        final int[] quantities = new int[SIZE];
+        final String[] names = new String[SIZE];
+        final Map<Integer, Integer> countById = new HashMap<>();
+        final Map<Integer, Integer> firstSlotById = new HashMap<>();
+        final Map<String, Integer> countByName = new HashMap<>();
+        final Map<String, Integer> firstSlotByName = new HashMap<>();
+        int used = 0;
+
+        State()
+        {
+            Arrays.fill(ids, EMPTY_ID);
+        }
+    }
+
+    private volatile State state = new State();
+    private volatile boolean loaded = false;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // Changes since the last published tick; client thread only
+    private final Map<Integer, Integer> pendingAdded = new HashMap<>();
+    private final Map<Integer, Integer> pendingRemoved = new HashMap<>();
+    private final Map<Integer, String> pendingNames = new HashMap<>();
+    private final Map<Integer, String> nameCache = new HashMap<>();
+
+    void addListener(Listener listener)
+    {
+        listeners.add(listener);
+    }
+
+    void removeListener(Listener listener)
+    {
+        listeners.remove(listener);
+    }
+
+    boolean isLoaded()
+    {
+        return loaded;
+    }
+
+    /** Reads the INV container directly; for start-up, when no change event has arrived yet. Client thread only. */
+    void load(Client client)
+    {
+        if (client == null)
+        {
+            return;
+        }
+        rebuild(client, client.getItemContainer(InventoryID.INV));
+    }
+
+    /** Rebuilds from the container of an INV {@code ItemContainerChanged}. Client thread only. */
+    void rebuild(Client client, ItemContainer container)
+    {
+        State previous = state;
+        State next = new State();
+        Item[] items = container == null ? null : container.getItems();
+        if (items != null)
+        {
+            for (int slot = 0; slot < SIZE && slot < items.length; slot++)
+            {
+                Item item = items[slot];
+                if (item == null || item.getId() <= 0 || item.getQuantity() <= 0)
+                {
+                    continue;
+                }
+                int id = item.getId();
+                String name = nameOf(client, id);
+                next.ids[slot] = id;
+                next.quantities[slot] = item.getQuantity();
+                next.names[slot] = name;
+                next.used++;
+                next.countById.merge(id, item.getQuantity(), Integer::sum);
+                next.firstSlotById.putIfAbsent(id, slot);
+                if (name != null)
+                {
+                    next.countByName.merge(name, item.getQuantity(), Integer::sum);
+                    next.firstSlotByName.putIfAbsent(name, slot);
+                }
+            }
+        }
+        state = next;
+        if (loaded)
+        {
+            accumulateDelta(previous, next);
+        }
+        loaded = true;
+    }
+
+    /** Publishes the changes since the previous call as one delta, if there were any. Client thread, on GameTick. */
+    void publishTick(int tick)
+    {
+        if (pendingAdded.isEmpty() && pendingRemoved.isEmpty())
+        {
+            return;
+        }
+        Map<Integer, String> names = new HashMap<>();
+        for (Map.Entry<Integer, String> e : pendingNames.entrySet())
+        {
+            if (pendingAdded.containsKey(e.getKey()) || pendingRemoved.containsKey(e.getKey()))
+            {
+                names.put(e.getKey(), e.getValue());
+            }
+        }
+        Delta delta = new Delta(tick,
+                Collections.unmodifiableMap(new HashMap<>(pendingAdded)),
+                Collections.unmodifiableMap(new HashMap<>(pendingRemoved)),
+                Collections.unmodifiableMap(names));
+        pendingAdded.clear();
+        pendingRemoved.clear();
+        pendingNames.clear();
+        for (Listener listener : listeners)
+        {
+            listener.onInventoryDelta(delta);
+        }
+    }
+
+    void reset()
+    {
+        state = new State();
+        loaded = false;
+        pendingAdded.clear();
+        pendingRemoved.clear();
+        pendingNames.clear();
+    }
+
+    int count(int id)
+    {
+        return state.countById.getOrDefault(id, 0);
+    }
+
+    int count(String name)
+    {
+        return name == null ? 0 : state.countByName.getOrDefault(name.toLowerCase(Locale.ENGLISH), 0);
+    }
+
+    boolean contains(String name)
+    {
+        return count(name) > 0;
+    }
+
+    /** Total quantity of every held id the matcher accepts; walks distinct ids, comparing ints. */
+    int count(DefinitionCache.Matcher matcher)
+    {
+        int total = 0;
+        for (Map.Entry<Integer, Integer> e : state.countById.entrySet())
+        {
+            if (matcher.matches(e.getKey()))
+            {
+                total += e.getValue();
+            }
+        }
+        return total;
+    }
+
+    boolean contains(DefinitionCache.Matcher matcher)
+    {
+        for (Integer id : state.countById.keySet())
+        {
+            if (matcher.matches(id))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** First slot holding the id, or -1. */
+    int firstSlot(int id)
+    {
+        return state.firstSlotById.getOrDefault(id, -1);
+    }
+
+    int firstSlot(String name)
+    {
+        return name == null ? -1 : state.firstSlotByName.getOrDefault(name.toLowerCase(Locale.ENGLISH), -1);
+    }
+
+    /** Total quantity of items whose name contains {@code part} (case-insensitive); walks distinct names only. */
+    int countNameContains(String part)
+    {
+        String needle = part.toLowerCase(Locale.ENGLISH);
+        int total = 0;
+        for (Map.Entry<String, Integer> e : state.countByName.entrySet())
+        {
+            if (e.getKey().contains(needle))
+            {
+                total += e.getValue();
+            }
+        }
+        return total;
+    }
+
+    int firstSlotNameContains(String part)
+    {
+        String needle = part.toLowerCase(Locale.ENGLISH);
+        int first = -1;
+        for (Map.Entry<String, Integer> e : state.firstSlotByName.entrySet())
+        {
+            if (e.getKey().contains(needle) && (first < 0 || e.getValue() < first))
+            {
+                first = e.getValue();
+            }
+        }
+        return first;
+    }
+
+    int idAt(int slot)
+    {
+        return slot < 0 || slot >= SIZE ? EMPTY_ID : state.ids[slot];
+    }
+
+    int usedSlots()
+    {
+        return state.used;
+    }
+
+    int freeSlots()
+    {
+        return SIZE - state.used;
+    }
+
+    boolean isFull()
+    {
+        return state.used >= SIZE;
+    }
+
+    /** Live inventory handles (for clicking) whose ids the matcher accepts, in slot order. */
+    static List<ItemEx> handles(DefinitionCache.Matcher matcher)
+    {
+        List<ItemEx> out = new ArrayList<>();
+        for (ItemEx item : InventoryQuery.fromInventoryId(InventoryID.INV).collect())
+        {
+            if (item != null && matcher.matches(item.getId()))
+            {
+                out.add(item);
+            }
+        }
+        return out;
+    }
+
+    static ItemEx firstHandle(DefinitionCache.Matcher matcher)
+    {
+        List<ItemEx> all = handles(matcher);
+        return all.isEmpty() ? null : all.get(0);
+    }
+
+    private void accumulateDelta(State before, State after)
+    {
+        for (Map.Entry<Integer, Integer> e : after.countById.entrySet())
+        {
+            int diff = e.getValue() - before.countById.getOrDefault(e.getKey(), 0);
+            if (diff != 0)
+            {
+                record(e.getKey(), diff, after);
+            }
+        }
+        for (Map.Entry<Integer, Integer> e : before.countById.entrySet())
+        {
+            if (!after.countById.containsKey(e.getKey()))
+            {
+                record(e.getKey(), -e.getValue(), before);
+            }
+        }
+    }
+
+    private void record(int id, int diff, State source)
+    {
+        // Net per tick: an add and a remove of the same id within one tick cancel out
+        int net = pendingAdded.getOrDefault(id, 0) - pendingRemoved.getOrDefault(id, 0) + diff;
+        pendingAdded.remove(id);
+        pendingRemoved.remove(id);
+        if (net > 0)
+        {
+            pendingAdded.put(id, net);
+        }
+        else if (net < 0)
+        {
+            pendingRemoved.put(id, -net);
+        }
+        int slot = source.firstSlotById.getOrDefault(id, -1);
+        if (slot >= 0 && source.names[slot] != null)
+        {
+            pendingNames.put(id, source.names[slot]);
+        }
+    }
+
+    private String nameOf(Client client, int id)
+    {
+        String cached = nameCache.get(id);
+        if (cached != null)
+        {
+            return cached;
+        }
+        ItemComposition def = client == null ? null : client.getItemDefinition(id);
+        String name = def == null || def.getName() == null ? null : def.getName().toLowerCase(Locale.ENGLISH);
+        if (name != null)
+        {
+            nameCache.put(id, name);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,115 @@
+package com.illumine.barb3tickfishing;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Decodes a {@link SessionRecorder} file into CSV, one row per recorded tick.
+ * Usage: {@code SessionRecordReader <file.b3t> [out.csv]}; without an output path the CSV goes to stdout.
+ */
+final class SessionRecordReader
+{
+    static final String HEADER = "tick,wall_ms,next_action,mode,player_x,player_y,player_plane,spot_x,spot_y,spot_plane,"
+            + "tar,herb,leaping,xp_delta,click,combine,drop,walk,hop,held";
+
+    private SessionRecordReader()
+    {
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 1 || args.length > 2)
+        {
+            System.err.println("usage: SessionRecordReader <file" + SessionRecorder.EXTENSION + "> [out.csv]");
+            System.exit(2);
+            return;
+        }
+        Path in = Paths.get(args[0]);
+        if (args.length == 2)
+        {
+            try (Writer out = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8))
+            {
+                toCsv(in, out);
+            }
+            return;
+        }
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        toCsv(in, out);
+        out.flush();
+    }
+
+    /** Writes the header row and every complete record of {@code in}; returns the number of records. */
+    static int toCsv(Path in, Writer out) throws IOException
+    {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(in)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.capacity() < SessionRecorder.HEADER_BYTES || buf.getInt(SessionRecorder.H_MAGIC) != SessionRecorder.MAGIC)
+        {
+            throw new IOException(in + " is not a session recording");
+        }
+        short version = buf.getShort(SessionRecorder.H_VERSION);
+        if (version != SessionRecorder.VERSION)
+        {
+            throw new IOException(in + " has unsupported version " + version);
+        }
+        int recordBytes = buf.getShort(SessionRecorder.H_RECORD_BYTES);
+        if (recordBytes < SessionRecorder.RECORD_BYTES)
+        {
+            throw new IOException(in + " has invalid record size " + recordBytes);
+        }
+        int stored = (buf.capacity() - SessionRecorder.HEADER_BYTES) / recordBytes;
+        int count = Math.min(buf.getInt(SessionRecorder.H_COUNT), stored);
+
+        Barb3TickRuntime.NextAction[] actions = Barb3TickRuntime.NextAction.values();
+        FishingMode[] modes = FishingMode.values();
+        StringBuilder row = new StringBuilder(128);
+        out.write(HEADER);
+        out.write('\n');
+        for (int i = 0; i < count; i++)
+        {
+            int at = SessionRecorder.HEADER_BYTES + i * recordBytes;
+            int flags = buf.get(at + SessionRecorder.R_ACTIONS);
+            row.setLength(0);
+            row.append(buf.getInt(at + SessionRecorder.R_TICK)).append(',')
+                    .append(buf.getLong(at + SessionRecorder.R_WALL_MS)).append(',')
+                    .append(name(actions, buf.get(at + SessionRecorder.R_NEXT_ACTION))).append(',')
+                    .append(name(modes, buf.get(at + SessionRecorder.R_MODE))).append(',')
+                    .append(buf.getShort(at + SessionRecorder.R_PLAYER_X)).append(',')
+                    .append(buf.getShort(at + SessionRecorder.R_PLAYER_Y)).append(',')
+                    .append(buf.get(at + SessionRecorder.R_PLAYER_PLANE)).append(',')
+                    .append(buf.getShort(at + SessionRecorder.R_SPOT_X)).append(',')
+                    .append(buf.getShort(at + SessionRecorder.R_SPOT_Y)).append(',')
+                    .append(buf.get(at + SessionRecorder.R_SPOT_PLANE)).append(',')
+                    .append(buf.getShort(at + SessionRecorder.R_TAR)).append(',')
+                    .append(buf.get(at + SessionRecorder.R_HERB)).append(',')
+                    .append(buf.get(at + SessionRecorder.R_LEAPING)).append(',')
+                    .append(buf.getShort(at + SessionRecorder.R_XP_DELTA));
+            appendFlag(row, flags, SessionRecorder.ACTION_CLICK);
+            appendFlag(row, flags, SessionRecorder.ACTION_COMBINE);
+            appendFlag(row, flags, SessionRecorder.ACTION_DROP);
+            appendFlag(row, flags, SessionRecorder.ACTION_WALK);
+            appendFlag(row, flags, SessionRecorder.ACTION_HOP);
+            appendFlag(row, flags, SessionRecorder.ACTION_HELD);
+            row.append('\n');
+            out.append(row);
+        }
+        return count;
+    }
+
+    private static String name(Enum<?>[] values, int ordinal)
+    {
+        return ordinal >= 0 && ordinal < values.length ? values[ordinal].name() : "";
+    }
+
+    private static void appendFlag(StringBuilder row, int flags, int flag)
+    {
+        row.append(',').append((flags & flag) != 0 ? 1 : 0);
+    }
+}
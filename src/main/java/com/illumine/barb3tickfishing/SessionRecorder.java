@@ -0,0 +1,215 @@
+package com.illumine.barb3tickfishing;
+
+import net.runelite.api.coords.WorldPoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.function.Consumer;
+
+/**
+ * Writes one fixed-size binary record per engine tick, for post-mortems of long sessions without INFO-level logging.
+ * A record is encoded into one reused direct buffer and handed to the page cache with a positional write, so there
+ * is no allocation or formatting and, unlike a mapping, nothing outlives {@link #close()}: closed files can always be
+ * deleted. A file holds {@link #RECORDS_PER_FILE} records before it is rolled over, and only the newest
+ * {@link #MAX_FILES} are kept. {@link SessionRecordReader} turns a file back into CSV.
+ *
+ * <p>File layout, little-endian: a {@link #HEADER_BYTES} header (magic, version, record size, records written)
+ * followed by {@link #RECORD_BYTES} records. The header count is updated with every record, so a file cut short by
+ * a crash still reads back up to its last complete tick.
+ */
+final class SessionRecorder
+{
+    static final int MAGIC = 0x42335452; // "B3TR"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 32;
+    static final int RECORDS_PER_FILE = 1 << 16;
+    static final int MAX_FILES = 8;
+    static final String EXTENSION = ".b3t";
+
+    // Header offsets
+    static final int H_MAGIC = 0;
+    static final int H_VERSION = 4;
+    static final int H_RECORD_BYTES = 6;
+    static final int H_COUNT = 8;
+
+    // Record offsets
+    static final int R_TICK = 0;
+    static final int R_WALL_MS = 4;
+    static final int R_NEXT_ACTION = 12;
+    static final int R_MODE = 13;
+    static final int R_ACTIONS = 14;
+    static final int R_PLAYER_PLANE = 15;
+    static final int R_PLAYER_X = 16;
+    static final int R_PLAYER_Y = 18;
+    static final int R_SPOT_X = 20;
+    static final int R_SPOT_Y = 22;
+    static final int R_TAR = 24;
+    static final int R_HERB = 26;
+    static final int R_LEAPING = 27;
+    static final int R_XP_DELTA = 28;
+    static final int R_SPOT_PLANE = 30;
+
+    // Action-issued flags, one bit per kind of input sent during the tick
+    static final int ACTION_CLICK = 1;
+    static final int ACTION_COMBINE = 1 << 1;
+    static final int ACTION_DROP = 1 << 2;
+    static final int ACTION_WALK = 1 << 3;
+    static final int ACTION_HOP = 1 << 4;
+    static final int ACTION_HELD = 1 << 5;
+
+    private final File directory;
+    private final Consumer<String> logger;
+
+    private final ByteBuffer entry = ByteBuffer.allocateDirect(RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer countField = ByteBuffer.allocateDirect(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private FileChannel channel;
+    private File current;
+    private int count = 0;
+    private int fileIndex = 0;
+    private String sessionName;
+
+    SessionRecorder(File directory, Consumer<String> logger)
+    {
+        this.directory = directory;
+        this.logger = (logger == null) ? s -> { } : logger;
+    }
+
+    /** Starts a new session file; recording stays off for the session if it cannot be created. */
+    synchronized void open()
+    {
+        close();
+        sessionName = "session-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        fileIndex = 0;
+        if (!roll())
+        {
+            sessionName = null;
+        }
+    }
+
+    synchronized void record(int tick, int nextAction, int mode, WorldPoint player, WorldPoint spot,
+                             int tar, int herb, int leaping, int xpDelta, int actions)
+    {
+        if (channel == null)
+        {
+            return;
+        }
+        if (count == RECORDS_PER_FILE && !roll())
+        {
+            return;
+        }
+        entry.putInt(R_TICK, tick);
+        entry.putLong(R_WALL_MS, System.currentTimeMillis());
+        entry.put(R_NEXT_ACTION, (byte) nextAction);
+        entry.put(R_MODE, (byte) mode);
+        entry.put(R_ACTIONS, (byte) actions);
+        entry.put(R_PLAYER_PLANE, (byte) (player == null ? -1 : player.getPlane()));
+        entry.putShort(R_PLAYER_X, (short) (player == null ? -1 : player.getX()));
+        entry.putShort(R_PLAYER_Y, (short) (player == null ? -1 : player.getY()));
+        entry.putShort(R_SPOT_X, (short) (spot == null ? -1 : spot.getX()));
+        entry.putShort(R_SPOT_Y, (short) (spot == null ? -1 : spot.getY()));
+        entry.putShort(R_TAR, (short) Math.min(tar, Short.MAX_VALUE));
+        entry.put(R_HERB, (byte) Math.min(herb, Byte.MAX_VALUE));
+        entry.put(R_LEAPING, (byte) Math.min(leaping, Byte.MAX_VALUE));
+        entry.putShort(R_XP_DELTA, (short) Math.max(Short.MIN_VALUE, Math.min(xpDelta, Short.MAX_VALUE)));
+        entry.put(R_SPOT_PLANE, (byte) (spot == null ? -1 : spot.getPlane()));
+        try
+        {
+            write(entry, HEADER_BYTES + (long) count * RECORD_BYTES);
+            count++;
+            countField.putInt(0, count);
+            write(countField, H_COUNT);
+        }
+        catch (IOException e)
+        {
+            logger.accept("Session recording stopped: " + e.getMessage());
+            close();
+        }
+    }
+
+    synchronized void close()
+    {
+        if (channel != null)
+        {
+            try
+            {
+                channel.close();
+            }
+            catch (IOException ignored)
+            {
+            }
+            channel = null;
+        }
+        current = null;
+        count = 0;
+    }
+
+    private boolean roll()
+    {
+        close();
+        File target = new File(directory, String.format("%s-%03d%s", sessionName, fileIndex++, EXTENSION));
+        try
+        {
+            if (!directory.isDirectory() && !directory.mkdirs())
+            {
+                throw new IOException("cannot create " + directory);
+            }
+            channel = FileChannel.open(target.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            current = target;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(H_MAGIC, MAGIC);
+            header.putShort(H_VERSION, VERSION);
+            header.putShort(H_RECORD_BYTES, (short) RECORD_BYTES);
+            header.putInt(H_COUNT, 0);
+            write(header, 0L);
+        }
+        catch (IOException e)
+        {
+            logger.accept("Session recording disabled: " + e.getMessage());
+            close();
+            return false;
+        }
+        pruneOldFiles();
+        return true;
+    }
+
+    private void write(ByteBuffer buffer, long position) throws IOException
+    {
+        buffer.clear();
+        while (buffer.hasRemaining())
+        {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private void pruneOldFiles()
+    {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(EXTENSION));
+        if (files == null || files.length <= MAX_FILES)
+        {
+            return;
+        }
+        // Names start with the session timestamp, so name order is age order
+        Arrays.sort(files);
+        for (int i = 0; i < files.length - MAX_FILES; i++)
+        {
+            // Everything but the file being written is closed, so it can be deleted on any platform
+            if (files[i].equals(current))
+            {
+                continue;
+            }
+            if (!files[i].delete())
+            {
+                logger.accept("Could not delete old session recording " + files[i].getName());
+            }
+        }
+    }
+}
@@ -1,16 +1,25 @@
 package com.illumine.barb3tickfishing;
 
-import com.tonic.api.threaded.Delays;
+import com.illumine.util.DefinitionCache;
 import com.tonic.api.widgets.InventoryAPI;
 import com.tonic.data.ItemEx;
 import com.tonic.queries.InventoryQuery;
 import net.runelite.api.gameval.InventoryID;
 
-class SuppliesManager
+class SuppliesManager implements InventoryModel.Listener
 {
+    private static final String TAR_NAME = "Swamp tar";
+    private static final String GRIMY_PREFIX = "Grimy";
+    private static final DefinitionCache.Matcher TAR = DefinitionCache.ITEMS.named(TAR_NAME);
+    // Noted or otherwise uncleanable grimy items have no "Clean" action and do not count as a herb source
+    private static final DefinitionCache.Matcher CLEANABLE = DefinitionCache.ITEMS.nameContainsWithAction(GRIMY_PREFIX, "Clean");
+
     private final Barb3TickRuntime runtime;
     private String herbName = Barb3TickRuntimeConfig.DEFAULT_HERB_NAME;
+    private DefinitionCache.Matcher herb = DefinitionCache.ITEMS.named(herbName);
     private boolean fallbackTriggered = false;
+    // Recomputed only after a tick whose inventory delta touched tar, the herb or a cleanable grimy herb
+    private volatile Boolean suppliesAvailable = null;
 
     SuppliesManager(Barb3TickRuntime runtime)
     {
@@ -20,7 +29,18 @@ class SuppliesManager
     void reset()
     {
         herbName = Barb3TickRuntimeConfig.DEFAULT_HERB_NAME;
+        herb = DefinitionCache.ITEMS.named(herbName);
         fallbackTriggered = false;
+        suppliesAvailable = null;
+    }
+
+    @Override
+    public void onInventoryDelta(InventoryModel.Delta delta)
+    {
+        if (delta.touches(TAR) || delta.touches(herb) || delta.touches(CLEANABLE))
+        {
+            suppliesAvailable = null;
+        }
     }
 
     void setHerbName(String herbName)
@@ -28,10 +48,15 @@ class SuppliesManager
         if (herbName == null)
         {
             this.herbName = Barb3TickRuntimeConfig.DEFAULT_HERB_NAME;
+            herb = DefinitionCache.ITEMS.named(this.herbName);
+            suppliesAvailable = null;
             return;
         }
         String trimmed = herbName.trim();
         this.herbName = trimmed.isEmpty() ? Barb3TickRuntimeConfig.DEFAULT_HERB_NAME : trimmed;
+        // Resolved to ids once per name; later checks compare ints
+        herb = DefinitionCache.ITEMS.named(this.herbName);
+        suppliesAvailable = null;
     }
 
     String herbName()
@@ -39,9 +64,20 @@ class SuppliesManager
         return herbName;
     }
 
+    DefinitionCache.Matcher herbMatcher()
+    {
+        return herb;
+    }
+
     boolean hasThreeTickSuppliesAvailable()
     {
-        return hasItem("Swamp tar") && canObtainCleanHerb();
+        Boolean cached = suppliesAvailable;
+        if (cached == null)
+        {
+            cached = runtime.inventory().contains(TAR) && canObtainCleanHerb();
+            suppliesAvailable = cached;
+        }
+        return cached;
     }
 
     boolean ensureSuppliesForActiveMode()
@@ -84,9 +120,9 @@ class SuppliesManager
 
     String determineMissingSupply()
     {
-        if (!hasItem("Swamp tar"))
+        if (!runtime.inventory().contains(TAR))
         {
-            return "Swamp tar";
+            return TAR_NAME;
         }
         if (!canObtainCleanHerb())
         {
@@ -97,16 +133,16 @@ class SuppliesManager
 
     private boolean ensureSupplies(boolean attemptClean)
     {
-        if (!hasItem("Swamp tar"))
+        if (!runtime.inventory().contains(TAR))
         {
-            handleOutOfSupplies("Swamp tar", runtime.config().switchToNormalOnSuppliesOut());
+            handleOutOfSupplies(TAR_NAME, runtime.config().switchToNormalOnSuppliesOut());
             return false;
         }
-        if (!hasItem(herbName))
+        if (!runtime.inventory().contains(herb))
         {
             if (attemptClean && cleanHerb())
             {
-                Delays.wait(200);
+                // The cleaned herb shows up in the inventory model on a later tick
                 return false;
             }
             handleOutOfSupplies(herbName, runtime.config().switchToNormalOnSuppliesOut());
@@ -117,29 +153,23 @@ class SuppliesManager
 
     private boolean canObtainCleanHerb()
     {
-        if (hasItem(herbName))
+        if (runtime.inventory().contains(herb))
         {
             return true;
         }
-        ItemEx cleanable = findCleanableHerb();
-        return cleanable != null;
-    }
-
-    private boolean hasItem(String name)
-    {
-        ItemEx item = InventoryQuery.fromInventoryId(InventoryID.INV)
-                .withName(name)
-                .first();
-        return item != null;
+        return runtime.inventory().contains(CLEANABLE);
     }
 
     private boolean cleanHerb()
     {
+        if (!runtime.inventory().contains(CLEANABLE))
+        {
+            return false;
+        }
         ItemEx cleanable = findCleanableHerb();
         if (cleanable != null)
         {
             InventoryAPI.interact(cleanable, "Clean");
-            Delays.wait(225);
             return true;
         }
         return false;
@@ -148,7 +178,7 @@ class SuppliesManager
     private ItemEx findCleanableHerb()
     {
         return InventoryQuery.fromInventoryId(InventoryID.INV)
-                .withNameContains("Grimy")
+                .withNameContains(GRIMY_PREFIX)
                 .withAction("Clean")
                 .first();
     }
@@ -0,0 +1,86 @@
+package com.illumine.barb3tickfishing;
+
+/**
+ * Where in the 600 ms game tick "now" is. Each GameTick is timestamped with {@link System#nanoTime()} on the client
+ * thread; the tick period and its jitter are smoothed the same way RTP smooths interarrival jitter (1/8 gain), so a
+ * single slow frame does not move the estimate. Gaps from loading screens or hops are ignored rather than averaged.
+ */
+final class TickClock
+{
+    static final long NOMINAL_TICK_NANOS = 600_000_000L;
+    // Interarrivals outside this window are stalls or catch-up bursts, not tick timing
+    private static final long MIN_SAMPLE_NANOS = 300_000_000L;
+    private static final long MAX_SAMPLE_NANOS = 1_200_000_000L;
+
+    private int tick = -1;
+    private long tickStartNanos = 0L;
+    private long periodNanos = NOMINAL_TICK_NANOS;
+    private long jitterNanos = 0L;
+
+    /** Client thread, first thing on GameTick. */
+    synchronized void onTick(int tick, long nowNanos)
+    {
+        if (this.tick >= 0 && tick == this.tick + 1)
+        {
+            long sample = nowNanos - tickStartNanos;
+            if (sample >= MIN_SAMPLE_NANOS && sample <= MAX_SAMPLE_NANOS)
+            {
+                long deviation = Math.abs(sample - periodNanos);
+                periodNanos += (sample - periodNanos) / 8;
+                jitterNanos += (deviation - jitterNanos) / 8;
+            }
+        }
+        this.tick = tick;
+        tickStartNanos = nowNanos;
+    }
+
+    synchronized void reset()
+    {
+        tick = -1;
+        tickStartNanos = 0L;
+        periodNanos = NOMINAL_TICK_NANOS;
+        jitterNanos = 0L;
+    }
+
+    synchronized int tick()
+    {
+        return tick;
+    }
+
+    /** Milliseconds since the current tick started, or -1 before the first tick. */
+    synchronized long msIntoTick()
+    {
+        return tick < 0 ? -1L : (System.nanoTime() - tickStartNanos) / 1_000_000L;
+    }
+
+    /** Predicted milliseconds until the next tick starts; 0 once it is overdue. */
+    synchronized long msUntilNextTick()
+    {
+        if (tick < 0)
+        {
+            return 0L;
+        }
+        return Math.max(0L, (tickStartNanos + periodNanos - System.nanoTime()) / 1_000_000L);
+    }
+
+    /** Fraction of the current tick already gone, 0 at the tick start and clamped to 1 once overdue. */
+    synchronized double phase()
+    {
+        if (tick < 0)
+        {
+            return 0.0;
+        }
+        double gone = (double) (System.nanoTime() - tickStartNanos) / (double) periodNanos;
+        return Math.max(0.0, Math.min(1.0, gone));
+    }
+
+    synchronized long periodMs()
+    {
+        return periodNanos / 1_000_000L;
+    }
+
+    synchronized long jitterMs()
+    {
+        return jitterNanos / 1_000_000L;
+    }
+}
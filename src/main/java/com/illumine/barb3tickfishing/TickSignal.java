@@ -0,0 +1,56 @@
+package com.illumine.barb3tickfishing;
+
+/**
+ * Hands game ticks from the client thread to the script loop. The plugin publishes each tick once its event-driven
+ * state (inventory, fishing spots) is up to date; the loop parks in {@link #awaitAfter} until a tick it has not
+ * handled yet arrives, so it runs one engine step per tick instead of polling or sleeping across tick boundaries.
+ */
+final class TickSignal
+{
+    private int tick = -1;
+
+    /** Client thread, at the end of GameTick handling. */
+    synchronized void publish(int tick)
+    {
+        this.tick = tick;
+        notifyAll();
+    }
+
+    synchronized int current()
+    {
+        return tick;
+    }
+
+    /**
+     * Parks until a tick newer than {@code seen} is published or {@code timeoutMs} passes.
+     * Returns the latest tick, which equals {@code seen} if none arrived in time.
+     */
+    synchronized int awaitAfter(int seen, long timeoutMs)
+    {
+        long deadline = System.nanoTime() + timeoutMs * 1_000_000L;
+        while (tick == seen)
+        {
+            long remainingMs = (deadline - System.nanoTime()) / 1_000_000L;
+            if (remainingMs <= 0)
+            {
+                break;
+            }
+            try
+            {
+                wait(remainingMs);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return tick;
+    }
+
+    synchronized void reset()
+    {
+        tick = -1;
+        notifyAll();
+    }
+}
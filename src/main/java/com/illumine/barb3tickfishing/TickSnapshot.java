@@ -0,0 +1,146 @@
+package com.illumine.barb3tickfishing;
+
+import net.runelite.api.Actor;
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.Player;
+import net.runelite.api.Skill;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * The live client state the engine reads, captured once per game tick on the client thread. The runtime, supplies,
+ * world hopping and panel formatting all read the same immutable copy, so a loop pass makes no client calls of its
+ * own and never sees the player half-way through an update. Inventory and fishing spots have their own
+ * event-driven models ({@link InventoryModel}, {@link FishingSpotTracker}) and are not repeated here.
+ */
+final class TickSnapshot
+{
+    static final TickSnapshot EMPTY = new TickSnapshot(-1, 0L, GameState.UNKNOWN, null, null, -1, null, -1, 0, 0, 0, 0);
+
+    private final int tick;
+    private final long capturedAtNanos;
+    private final GameState gameState;
+    private final String playerName;
+    private final WorldPoint playerTile;
+    private final int animation;
+    private final Actor interacting;
+    private final int world;
+    private final int fishingLevel;
+    private final int strengthLevel;
+    private final int agilityLevel;
+    private final int fishingXp;
+
+    private TickSnapshot(int tick, long capturedAtNanos, GameState gameState, String playerName, WorldPoint playerTile,
+                         int animation, Actor interacting, int world, int fishingLevel, int strengthLevel,
+                         int agilityLevel, int fishingXp)
+    {
+        this.tick = tick;
+        this.capturedAtNanos = capturedAtNanos;
+        this.gameState = gameState;
+        this.playerName = playerName;
+        this.playerTile = playerTile;
+        this.animation = animation;
+        this.interacting = interacting;
+        this.world = world;
+        this.fishingLevel = fishingLevel;
+        this.strengthLevel = strengthLevel;
+        this.agilityLevel = agilityLevel;
+        this.fishingXp = fishingXp;
+    }
+
+    /** Client thread only. */
+    static TickSnapshot capture(Client client, int tick, long nowNanos)
+    {
+        if (client == null)
+        {
+            return EMPTY;
+        }
+        Player player = client.getLocalPlayer();
+        return new TickSnapshot(
+                tick,
+                nowNanos,
+                client.getGameState(),
+                player == null ? null : player.getName(),
+                player == null ? null : player.getWorldLocation(),
+                player == null ? -1 : player.getAnimation(),
+                player == null ? null : player.getInteracting(),
+                client.getWorld(),
+                client.getRealSkillLevel(Skill.FISHING),
+                client.getRealSkillLevel(Skill.STRENGTH),
+                client.getRealSkillLevel(Skill.AGILITY),
+                client.getSkillExperience(Skill.FISHING)
+        );
+    }
+
+    int tick()
+    {
+        return tick;
+    }
+
+    long capturedAtNanos()
+    {
+        return capturedAtNanos;
+    }
+
+    GameState gameState()
+    {
+        return gameState;
+    }
+
+    /** Logged in with a local player; every player field below is null/-1 otherwise. */
+    boolean ready()
+    {
+        return gameState == GameState.LOGGED_IN && playerTile != null;
+    }
+
+    String playerName()
+    {
+        return playerName;
+    }
+
+    WorldPoint playerTile()
+    {
+        return playerTile;
+    }
+
+    int animation()
+    {
+        return animation;
+    }
+
+    /** Who the player was interacting with at capture; compare by identity only, the actor itself is live. */
+    Actor interacting()
+    {
+        return interacting;
+    }
+
+    boolean idle()
+    {
+        return animation == -1 && interacting == null;
+    }
+
+    int world()
+    {
+        return world;
+    }
+
+    int fishingLevel()
+    {
+        return fishingLevel;
+    }
+
+    int strengthLevel()
+    {
+        return strengthLevel;
+    }
+
+    int agilityLevel()
+    {
+        return agilityLevel;
+    }
+
+    int fishingXp()
+    {
+        return fishingXp;
+    }
+}
@@ -21,7 +21,13 @@ class WorldHopController
 
         void log(String message);
 
+        /** Structured log event for the current tick; formatted off the script thread, if at all. */
+        void logEvent(EventLog.Type type, int value);
+
         void onWorldHopSuccess();
+
+        /** Client state as of the last game tick. */
+        TickSnapshot snapshot();
     }
 
     private final Host host;
@@ -105,7 +111,7 @@ class WorldHopController
         World current = WorldsAPI.getCurrentWorld();
         if (current == null)
         {
-            host.log("Unable to resolve current world for hopping");
+            host.logEvent(EventLog.Type.HOP_NO_CURRENT_WORLD, 0);
             return false;
         }
         currentWorldId = current.getId();
@@ -124,29 +130,28 @@ class WorldHopController
 
         if (candidates.isEmpty())
         {
-            host.log("No eligible worlds available for hopping");
+            host.logEvent(EventLog.Type.HOP_NO_CANDIDATES, 0);
             return false;
         }
 
         Collections.shuffle(candidates);
-        Client client = host.getClient();
         for (World candidate : candidates)
         {
             int targetId = candidate.getId();
-            host.log("Attempting to hop to world " + targetId);
+            host.logEvent(EventLog.Type.HOP_ATTEMPT, targetId);
             WorldsAPI.hop(candidate);
 
-            boolean hopped = waitForWorld(client, targetId);
+            boolean hopped = waitForWorld(targetId);
             if (hopped)
             {
                 currentWorldId = targetId;
                 homeRegion = candidate.getRegion();
                 host.onWorldHopSuccess();
-                host.log("World-hop: switched to world " + targetId);
+                host.logEvent(EventLog.Type.HOP_SWITCHED, targetId);
                 return true;
             }
         }
-        host.log("World-hop attempts failed");
+        host.logEvent(EventLog.Type.HOP_FAILED, 0);
         return false;
     }
 
@@ -189,20 +194,14 @@ class WorldHopController
             return "00:00";
         }
         long totalSeconds = remaining / 1000L;
-        long minutes = totalSeconds / 60L;
-        long seconds = totalSeconds % 60L;
-        return String.format("%02d:%02d", minutes, seconds);
+        return Barb3TickRuntime.twoDigits(totalSeconds / 60L) + ":" + Barb3TickRuntime.twoDigits(totalSeconds % 60L);
     }
 
     String formatCurrentWorld()
     {
         if (currentWorldId <= 0)
         {
-            World current = WorldsAPI.getCurrentWorld();
-            if (current != null)
-            {
-                currentWorldId = current.getId();
-            }
+            currentWorldId = host.snapshot().world();
         }
         if (currentWorldId <= 0)
         {
@@ -211,13 +210,14 @@ class WorldHopController
         return "W" + currentWorldId;
     }
 
-    private boolean waitForWorld(Client client, int targetWorld)
+    private boolean waitForWorld(int targetWorld)
     {
         long timeout = System.currentTimeMillis() + 15_000L;
         while (System.currentTimeMillis() < timeout)
         {
-            GameState state = client.getGameState();
-            if (state == GameState.LOGGED_IN && client.getWorld() == targetWorld)
+            // Hopping runs across ticks, so this waits on the per-tick snapshot rather than polling the client
+            TickSnapshot snapshot = host.snapshot();
+            if (snapshot.gameState() == GameState.LOGGED_IN && snapshot.world() == targetWorld)
             {
                 return true;
             }
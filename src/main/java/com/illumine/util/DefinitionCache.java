@@ -0,0 +1,127 @@
+package com.illumine.util;
+
+import com.tonic.Static;
+import net.runelite.api.Client;
+import net.runelite.api.ItemComposition;
+import net.runelite.api.NPCComposition;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Memoized name/action lookups on item and NPC definitions. Callers describe what they want once (an exact name,
+ * a name fragment, optionally an action) and get a {@link Matcher}; each definition id is then resolved at most
+ * once per session and every later check is an int lookup. Matchers are shared per description, so re-asking for
+ * the same configured name is free; a changed name simply yields a new matcher.
+ */
+public final class DefinitionCache {
+    public static final DefinitionCache ITEMS = new DefinitionCache(id -> {
+        ItemComposition def = Static.getClient().getItemDefinition(id);
+        return def == null ? null : new Definition(def.getName(), def.getInventoryActions());
+    });
+
+    public static final DefinitionCache NPCS = new DefinitionCache(id -> {
+        NPCComposition def = Static.getClient().getNpcDefinition(id);
+        return def == null ? null : new Definition(def.getName(), def.getActions());
+    });
+
+    /** Lowercase name and actions of one definition. */
+    static final class Definition {
+        final String name;
+        final String[] actions;
+
+        Definition(String name, String[] actions) {
+            this.name = name == null ? "" : name.toLowerCase(Locale.ENGLISH);
+            this.actions = actions;
+        }
+
+        boolean hasAction(String action) {
+            if (actions == null) return false;
+            for (String a : actions) {
+                if (a != null && a.equalsIgnoreCase(action)) return true;
+            }
+            return false;
+        }
+    }
+
+    /** Id predicate for one name description; answers are memoized per id. */
+    public static final class Matcher {
+        private final DefinitionCache cache;
+        private final String name;
+        private final boolean contains;
+        private final String action;
+        private final Map<Integer, Boolean> memo = new ConcurrentHashMap<>();
+
+        private Matcher(DefinitionCache cache, String name, boolean contains, String action) {
+            this.cache = cache;
+            this.name = name;
+            this.contains = contains;
+            this.action = action;
+        }
+
+        public boolean matches(int id) {
+            if (id < 0) return false;
+            Boolean known = memo.get(id);
+            if (known != null) return known;
+            Definition def = cache.definition(id);
+            if (def == null) return false; // not resolvable yet; ask again next time
+            boolean match = (contains ? def.name.contains(name) : def.name.equals(name))
+                    && (action == null || def.hasAction(action));
+            memo.put(id, match);
+            return match;
+        }
+    }
+
+    private final IntFunction<Definition> resolver;
+    private final Map<Integer, Definition> definitions = new ConcurrentHashMap<>();
+    private final Map<String, Matcher> matchers = new ConcurrentHashMap<>();
+
+    private DefinitionCache(IntFunction<Definition> resolver) {
+        this.resolver = resolver;
+    }
+
+    /** Ids whose name equals {@code name}, ignoring case. */
+    public Matcher named(String name) {
+        return matcher(name, false, null);
+    }
+
+    /** Ids whose name contains {@code part}, ignoring case. */
+    public Matcher nameContains(String part) {
+        return matcher(part, true, null);
+    }
+
+    /** Ids whose name contains {@code part} and that offer {@code action}, both ignoring case. */
+    public Matcher nameContainsWithAction(String part, String action) {
+        return matcher(part, true, action);
+    }
+
+    /** Ids whose name equals {@code name} and that offer {@code action}, both ignoring case. */
+    public Matcher namedWithAction(String name, String action) {
+        return matcher(name, false, action);
+    }
+
+    /** Forgets every resolved definition and memoized answer; call when a new session may have changed them. */
+    public void clear() {
+        definitions.clear();
+        for (Matcher m : matchers.values()) m.memo.clear();
+    }
+
+    private Matcher matcher(String name, boolean contains, String action) {
+        String key = (name == null ? "" : name.trim().toLowerCase(Locale.ENGLISH));
+        String id = (contains ? "~" : "=") + key + (action == null ? "" : "|" + action.toLowerCase(Locale.ENGLISH));
+        return matchers.computeIfAbsent(id, k -> new Matcher(this, key, contains, action));
+    }
+
+    private Definition definition(int id) {
+        Definition def = definitions.get(id);
+        if (def != null) return def;
+        Client client = Static.getClient();
+        if (client == null) return null;
+        // Definitions are read on the client thread; hop there if a loop thread asks first
+        def = client.isClientThread() ? resolver.apply(id) : Static.invoke(() -> resolver.apply(id));
+        if (def != null) definitions.put(id, def);
+        return def;
+    }
+}
@@ -0,0 +1,193 @@
+package com.illumine.util;
+
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Tracked entities bucketed into {@link #CELL}x{@link #CELL}-tile cells by world position. Nearest and radius
+ * queries visit cells ring by ring outward from the query tile and stop as soon as no unvisited cell can hold
+ * anything closer, so their cost follows how far away the answer is rather than how many entities are tracked.
+ * Distances are Chebyshev (the same as {@link WorldPoint#distanceTo(WorldPoint)}); other planes never match.
+ * All methods are synchronized, so event handlers can write while a script loop reads.
+ */
+public final class SpatialGrid<T> {
+    public static final int CELL = 8;
+    private static final int SHIFT = 3;
+
+    private final Map<Long, List<T>> cells = new HashMap<>();
+    private final Map<T, WorldPoint> positions = new IdentityHashMap<>();
+    // Extent of every cell ever used since the last clear; bounds how far a ring search can usefully go
+    private int minCellX = Integer.MAX_VALUE;
+    private int minCellY = Integer.MAX_VALUE;
+    private int maxCellX = Integer.MIN_VALUE;
+    private int maxCellY = Integer.MIN_VALUE;
+
+    /** Tracks {@code item} at {@code at}, moving it if it is already tracked. */
+    public synchronized void put(T item, WorldPoint at) {
+        if (item == null || at == null) return;
+        WorldPoint old = positions.put(item, at);
+        if (old != null) {
+            if (cellKey(old) == cellKey(at)) return;
+            removeFromCell(item, old);
+        }
+        cells.computeIfAbsent(cellKey(at), k -> new ArrayList<>()).add(item);
+        int cx = at.getX() >> SHIFT;
+        int cy = at.getY() >> SHIFT;
+        if (cx < minCellX) minCellX = cx;
+        if (cx > maxCellX) maxCellX = cx;
+        if (cy < minCellY) minCellY = cy;
+        if (cy > maxCellY) maxCellY = cy;
+    }
+
+    public synchronized boolean remove(T item) {
+        WorldPoint old = item == null ? null : positions.remove(item);
+        if (old == null) return false;
+        removeFromCell(item, old);
+        return true;
+    }
+
+    public synchronized WorldPoint positionOf(T item) {
+        return positions.get(item);
+    }
+
+    public synchronized boolean contains(T item) {
+        return positions.containsKey(item);
+    }
+
+    /** Copy of every tracked item, in no particular order. */
+    public synchronized List<T> items() {
+        return new ArrayList<>(positions.keySet());
+    }
+
+    public synchronized int size() {
+        return positions.size();
+    }
+
+    public synchronized void clear() {
+        cells.clear();
+        positions.clear();
+        minCellX = Integer.MAX_VALUE;
+        minCellY = Integer.MAX_VALUE;
+        maxCellX = Integer.MIN_VALUE;
+        maxCellY = Integer.MIN_VALUE;
+    }
+
+    /** Nearest tracked item accepted by {@code filter} (null accepts all), or null if there is none. */
+    public synchronized T nearest(WorldPoint from, Predicate<? super T> filter) {
+        List<T> one = nearest(from, 1, filter);
+        return one.isEmpty() ? null : one.get(0);
+    }
+
+    /** Up to {@code k} accepted items, closest first; ties keep cell order. */
+    public synchronized List<T> nearest(WorldPoint from, int k, Predicate<? super T> filter) {
+        if (from == null || k <= 0 || positions.isEmpty()) return Collections.emptyList();
+        ArrayList<T> found = new ArrayList<>();
+        ArrayList<Integer> dists = new ArrayList<>();
+        int cx = from.getX() >> SHIFT;
+        int cy = from.getY() >> SHIFT;
+        int maxRing = maxRing(cx, cy);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (found.size() == k && dists.get(k - 1) < ringBound(from, ring)) break;
+            forEachInRing(from, cx, cy, ring, filter, (item, d) -> {
+                if (found.size() == k && d >= dists.get(k - 1)) return;
+                int i = found.size();
+                while (i > 0 && dists.get(i - 1) > d) i--;
+                found.add(i, item);
+                dists.add(i, d);
+                if (found.size() > k) {
+                    found.remove(k);
+                    dists.remove(k);
+                }
+            });
+        }
+        return found;
+    }
+
+    /** Every accepted item within {@code radius} tiles of {@code from}, closest first. */
+    public synchronized List<T> withinRadius(WorldPoint from, int radius, Predicate<? super T> filter) {
+        if (from == null || radius < 0 || positions.isEmpty()) return Collections.emptyList();
+        ArrayList<T> found = new ArrayList<>();
+        ArrayList<Integer> dists = new ArrayList<>();
+        int cx = from.getX() >> SHIFT;
+        int cy = from.getY() >> SHIFT;
+        int maxRing = Math.min(maxRing(cx, cy), (radius >> SHIFT) + 1);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (ringBound(from, ring) > radius) break;
+            forEachInRing(from, cx, cy, ring, filter, (item, d) -> {
+                if (d > radius) return;
+                int i = found.size();
+                while (i > 0 && dists.get(i - 1) > d) i--;
+                found.add(i, item);
+                dists.add(i, d);
+            });
+        }
+        return found;
+    }
+
+    private interface Visitor<T> {
+        void visit(T item, int distance);
+    }
+
+    private void forEachInRing(WorldPoint from, int cx, int cy, int ring, Predicate<? super T> filter, Visitor<T> visitor) {
+        for (int x = cx - ring; x <= cx + ring; x++) {
+            boolean edgeColumn = x == cx - ring || x == cx + ring;
+            // Interior columns only contribute their top and bottom cells
+            int step = edgeColumn || ring == 0 ? 1 : 2 * ring;
+            for (int y = cy - ring; y <= cy + ring; y += step) {
+                List<T> cell = cells.get(key(from.getPlane(), x, y));
+                if (cell == null) continue;
+                for (T item : cell) {
+                    if (filter != null && !filter.test(item)) continue;
+                    visitor.visit(item, positions.get(item).distanceTo(from));
+                }
+            }
+        }
+    }
+
+    /** Smallest distance from {@code from} to any tile in ring {@code ring}; nothing in that ring or beyond is closer. */
+    private static int ringBound(WorldPoint from, int ring) {
+        if (ring == 0) return 0;
+        int cx = from.getX() >> SHIFT;
+        int cy = from.getY() >> SHIFT;
+        int west = from.getX() - ((cx - ring + 1) << SHIFT) + 1;
+        int east = ((cx + ring) << SHIFT) - from.getX();
+        int south = from.getY() - ((cy - ring + 1) << SHIFT) + 1;
+        int north = ((cy + ring) << SHIFT) - from.getY();
+        return Math.min(Math.min(west, east), Math.min(south, north));
+    }
+
+    private int maxRing(int cx, int cy) {
+        if (minCellX > maxCellX) return -1;
+        int dx = Math.max(Math.abs(cx - minCellX), Math.abs(maxCellX - cx));
+        int dy = Math.max(Math.abs(cy - minCellY), Math.abs(maxCellY - cy));
+        return Math.max(dx, dy);
+    }
+
+    private void removeFromCell(T item, WorldPoint at) {
+        long key = cellKey(at);
+        List<T> cell = cells.get(key);
+        if (cell == null) return;
+        for (int i = 0; i < cell.size(); i++) {
+            if (cell.get(i) == item) {
+                cell.remove(i);
+                break;
+            }
+        }
+        if (cell.isEmpty()) cells.remove(key);
+    }
+
+    private static long cellKey(WorldPoint p) {
+        return key(p.getPlane(), p.getX() >> SHIFT, p.getY() >> SHIFT);
+    }
+
+    private static long key(int plane, int cellX, int cellY) {
+        return ((long) plane << 48) | ((long) (cellX & 0xFFFFFF) << 24) | (cellY & 0xFFFFFF);
+    }
+}
@@ -0,0 +1,119 @@
+package com.illumine.util;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One Swing timer shared by every side panel instead of a timer per panel. Panels register a refresh callback;
+ * each firing runs the callbacks of all panels that are currently showing in a single EDT pass, and the timer
+ * itself only runs while at least one registered panel is showing, so a client left minimised or on another tab
+ * gets no refresh wakeups at all. A panel that becomes visible is refreshed at once rather than on the next firing.
+ */
+public final class UiRefreshScheduler {
+    public static final int PERIOD_MS = 250;
+
+    private static final UiRefreshScheduler SHARED = new UiRefreshScheduler(PERIOD_MS);
+
+    /** A registered panel; {@link #close()} it when the panel is disposed. */
+    public final class Registration {
+        private final JComponent component;
+        private final Runnable refresh;
+        private final Runnable onShown;
+        private final HierarchyListener listener;
+        private volatile boolean showing;
+
+        private Registration(JComponent component, Runnable refresh, Runnable onShown) {
+            this.component = component;
+            this.refresh = refresh;
+            this.onShown = onShown;
+            this.listener = e -> {
+                if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) onShowingChanged(this);
+            };
+        }
+
+        /** Whether the panel was showing as of the last hierarchy change; safe to read from any thread. */
+        public boolean isShowing() {
+            return showing;
+        }
+
+        public void close() {
+            onEdt(() -> {
+                component.removeHierarchyListener(listener);
+                entries.remove(this);
+                showing = false;
+                updateTimer();
+            });
+        }
+    }
+
+    private final Timer timer;
+    // EDT only
+    private final List<Registration> entries = new ArrayList<>();
+
+    private UiRefreshScheduler(int periodMs) {
+        timer = new Timer(periodMs, e -> refreshShowing());
+        timer.setCoalesce(true);
+    }
+
+    public static UiRefreshScheduler shared() {
+        return SHARED;
+    }
+
+    /** Calls {@code refresh} on the EDT every {@link #PERIOD_MS} while {@code component} is showing. */
+    public Registration register(JComponent component, Runnable refresh) {
+        return register(component, refresh, null);
+    }
+
+    /**
+     * As {@link #register(JComponent, Runnable)}, also calling {@code onShown} on the EDT each time the panel becomes
+     * visible, before its first refresh; for owners that stop producing updates while the panel is hidden.
+     */
+    public Registration register(JComponent component, Runnable refresh, Runnable onShown) {
+        Registration reg = new Registration(component, refresh, onShown);
+        onEdt(() -> {
+            entries.add(reg);
+            component.addHierarchyListener(reg.listener);
+            onShowingChanged(reg);
+        });
+        return reg;
+    }
+
+    private void onShowingChanged(Registration reg) {
+        boolean now = reg.component.isShowing();
+        boolean was = reg.showing;
+        reg.showing = now;
+        if (now && !was) {
+            if (reg.onShown != null) reg.onShown.run();
+            reg.refresh.run();
+        }
+        updateTimer();
+    }
+
+    private void refreshShowing() {
+        for (Registration reg : new ArrayList<>(entries)) {
+            if (reg.showing) reg.refresh.run();
+        }
+    }
+
+    private void updateTimer() {
+        boolean any = false;
+        for (Registration reg : entries) {
+            if (reg.showing) {
+                any = true;
+                break;
+            }
+        }
+        if (any && !timer.isRunning()) timer.start();
+        else if (!any && timer.isRunning()) timer.stop();
+    }
+
+    private static void onEdt(Runnable r) {
+        if (SwingUtilities.isEventDispatchThread()) r.run();
+        else SwingUtilities.invokeLater(r);
+    }
+}
@@ -0,0 +1,162 @@
+package com.illumine.woodcutter;
+
+import com.tonic.services.pathfinder.Walker;
+import net.runelite.api.Client;
+import net.runelite.api.CollisionData;
+import net.runelite.api.CollisionDataFlag;
+import net.runelite.api.Constants;
+import net.runelite.api.WorldView;
+
+import java.util.Arrays;
+
+/**
+ * Immutable collision view for reachability queries: the top-level scene flags, surrounded by a ring of tiles taken
+ * from the pathfinder's global collision map, flattened into one int[] indexed the same way as {@link ReachEngine}
+ * nodes. Taken once per game tick (or scene load) so queries never touch the client.
+ * The global map only knows whether a tile is walkable, so ring tiles are either open or fully blocked.
+ * The client marks the outermost scene tiles (x/y 0 and the last {@link #SCENE_BORDER_HIGH}) as fully blocked
+ * regardless of the real terrain; those are treated as unknown and also taken from the global map, otherwise no
+ * search starting in the scene could ever cross into the ring.
+ */
+final class CollisionSnapshot {
+    // Scene edge tiles the client fills with 0xFFFFFF: index 0, and SCENE_SIZE - SCENE_BORDER_HIGH and up
+    static final int SCENE_BORDER_LOW = 1;
+    static final int SCENE_BORDER_HIGH = 5;
+    private static final int SCENE_INNER_END = Constants.SCENE_SIZE - SCENE_BORDER_HIGH;
+
+    private static final Object CAPTURE_LOCK = new Object();
+    private static int[] scratch = new int[ReachEngine.TILES];
+    private static CollisionSnapshot last = null;
+    private static long epochCounter = 0L;
+
+    private final int baseX;
+    private final int baseY;
+    private final int[] flags;
+    private final int checksum;
+    private final long epoch;
+
+    private CollisionSnapshot(int baseX, int baseY, int[] flags, int checksum, long epoch) {
+        this.baseX = baseX;
+        this.baseY = baseY;
+        this.flags = flags;
+        this.checksum = checksum;
+        this.epoch = epoch;
+    }
+
+    /**
+     * Copies the current scene flags. The global-map ring is only rebuilt when the scene base moves. If nothing
+     * changed since the previous capture the previous snapshot is returned as-is, so a new array is only
+     * allocated when the collision data actually differs.
+     */
+    static CollisionSnapshot capture(Client client) {
+        WorldView wv = client == null ? null : client.getTopLevelWorldView();
+        if (wv == null) return null;
+        CollisionData[] maps = wv.getCollisionMaps();
+        if (maps == null) return null;
+        int baseX = wv.getBaseX() - ReachEngine.PADDING;
+        int baseY = wv.getBaseY() - ReachEngine.PADDING;
+
+        synchronized (CAPTURE_LOCK) {
+            int[] out = scratch;
+            CollisionSnapshot prev = last;
+            boolean sameGrid = prev != null && prev.baseX == baseX && prev.baseY == baseY;
+            if (sameGrid) {
+                // Global map data is static; reuse the previous ring and scene edge, and overwrite the scene below
+                System.arraycopy(prev.flags, 0, out, 0, out.length);
+            } else {
+                fillFromGlobalMap(out, baseX, baseY);
+            }
+
+            for (int plane = 0; plane < ReachEngine.PLANES; plane++) {
+                int[][] planeFlags = (plane < maps.length && maps[plane] != null) ? maps[plane].getFlags() : null;
+                for (int sx = SCENE_BORDER_LOW; sx < SCENE_INNER_END; sx++) {
+                    int[] column = (planeFlags != null && sx < planeFlags.length) ? planeFlags[sx] : null;
+                    int offset = ReachEngine.index(sx + ReachEngine.PADDING, ReachEngine.PADDING, plane);
+                    for (int sy = SCENE_BORDER_LOW; sy < SCENE_INNER_END; sy++) {
+                        out[offset + sy] = (column != null && sy < column.length) ? column[sy] : 0;
+                    }
+                }
+            }
+            int hash = Arrays.hashCode(out);
+
+            if (sameGrid && prev.checksum == hash && Arrays.equals(prev.flags, out)) {
+                return prev;
+            }
+            CollisionSnapshot snap = new CollisionSnapshot(baseX, baseY, out, hash, ++epochCounter);
+            scratch = new int[ReachEngine.TILES];
+            last = snap;
+            return snap;
+        }
+    }
+
+    /** Snapshot over caller-built flags in {@link ReachEngine} grid layout, e.g. synthetic grids for benchmarks. */
+    static CollisionSnapshot of(int baseX, int baseY, int[] flags) {
+        if (flags.length != ReachEngine.TILES) {
+            throw new IllegalArgumentException("expected " + ReachEngine.TILES + " flags, got " + flags.length);
+        }
+        int[] copy = flags.clone();
+        synchronized (CAPTURE_LOCK) {
+            return new CollisionSnapshot(baseX, baseY, copy, Arrays.hashCode(copy), ++epochCounter);
+        }
+    }
+
+    private static void fillFromGlobalMap(int[] out, int baseX, int baseY) {
+        var global = Walker.getCollisionMap();
+        final int innerStart = ReachEngine.PADDING + SCENE_BORDER_LOW;
+        final int innerEnd = ReachEngine.PADDING + SCENE_INNER_END;
+        for (int plane = 0; plane < ReachEngine.PLANES; plane++) {
+            for (int gx = 0; gx < ReachEngine.SIZE; gx++) {
+                int offset = ReachEngine.index(gx, 0, plane);
+                boolean innerColumn = gx >= innerStart && gx < innerEnd;
+                for (int gy = 0; gy < ReachEngine.SIZE; gy++) {
+                    if (innerColumn && gy >= innerStart && gy < innerEnd) continue; // copied from the scene
+                    // Without a global map the ring stays open, as tiles outside the scene always were
+                    boolean walkable = global == null
+                            || global.walkable((short) (baseX + gx), (short) (baseY + gy), (byte) plane);
+                    out[offset + gy] = walkable ? 0 : CollisionDataFlag.BLOCK_MOVEMENT_FULL;
+                }
+            }
+        }
+    }
+
+    /** World X of grid column 0 (scene base minus {@link ReachEngine#PADDING}). */
+    int baseX() {
+        return baseX;
+    }
+
+    /** World Y of grid row 0 (scene base minus {@link ReachEngine#PADDING}). */
+    int baseY() {
+        return baseY;
+    }
+
+    /** Hash of all flags; changes whenever any collision flag in the grid changes. */
+    int checksum() {
+        return checksum;
+    }
+
+    /** Increases by one for every distinct snapshot (new scene or changed flags). */
+    long epoch() {
+        return epoch;
+    }
+
+    boolean contains(int worldX, int worldY, int plane) {
+        return ReachEngine.inGrid(worldX - baseX, worldY - baseY, plane);
+    }
+
+    int index(int worldX, int worldY, int plane) {
+        return ReachEngine.index(worldX - baseX, worldY - baseY, plane);
+    }
+
+    /** Flags for a grid index produced by {@link #index} or {@link ReachEngine#index}. */
+    int flagsAt(int index) {
+        return flags[index];
+    }
+
+    /** Flags for a world tile; 0 (open) outside the search grid. */
+    int flags(int worldX, int worldY, int plane) {
+        int sx = worldX - baseX;
+        int sy = worldY - baseY;
+        if (!ReachEngine.inGrid(sx, sy, plane)) return 0;
+        return flags[ReachEngine.index(sx, sy, plane)];
+    }
+}
@@ -0,0 +1,15 @@
+package com.illumine.woodcutter;
+
+/**
+ * Where reach queries read collision flags from. Sources hand out immutable {@link CollisionSnapshot}s, so a query
+ * never touches live client state and may run on any thread.
+ */
+interface CollisionSource {
+    /** Snapshot to answer the next query against, or null if none is available. */
+    CollisionSnapshot snapshot();
+
+    /** Source pinned to one snapshot; capture it on the client thread, then hand it to background work. */
+    static CollisionSource of(CollisionSnapshot snapshot) {
+        return () -> snapshot;
+    }
+}
@@ -0,0 +1,153 @@
+package com.illumine.woodcutter;
+
+import net.runelite.api.CollisionDataFlag;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Full BFS distance field over one search-grid plane, rooted at the player's tile. Kept until either the root tile
+ * moves or the collision snapshot's checksum changes, so repeated reachability questions are array lookups.
+ */
+final class DistanceField {
+    static final int UNREACHABLE = -1;
+
+    private final int[] distance = new int[ReachEngine.PLANE_TILES];
+    private final int[] parent = new int[ReachEngine.PLANE_TILES];
+    private final int[] queue = new int[ReachEngine.PLANE_TILES];
+
+    private CollisionSnapshot snap = null;
+    private int checksum = 0;
+    private int rootX = Integer.MIN_VALUE;
+    private int rootY = Integer.MIN_VALUE;
+    private int plane = -1;
+    private boolean valid = false;
+
+    private long hits = 0L;
+    private long misses = 0L;
+
+    /**
+     * Makes sure the field is rooted at {@code from} for the given snapshot, rebuilding only when invalidated.
+     * Returns false if the root is outside the search grid (the field is then empty).
+     */
+    boolean ensure(CollisionSnapshot snapshot, WorldPoint from) {
+        int x = from.getX();
+        int y = from.getY();
+        int p = from.getPlane();
+        boolean sameScene = snap != null && snapshot.baseX() == snap.baseX() && snapshot.baseY() == snap.baseY();
+        if (valid && sameScene && snapshot.checksum() == checksum && x == rootX && y == rootY && p == plane) {
+            snap = snapshot;
+            hits++;
+            return true;
+        }
+        misses++;
+        snap = snapshot;
+        checksum = snapshot.checksum();
+        rootX = x;
+        rootY = y;
+        plane = p;
+        valid = snapshot.contains(x, y, p);
+        Arrays.fill(distance, UNREACHABLE);
+        if (valid) build(snapshot.index(x, y, p) - ReachEngine.index(0, 0, p));
+        return valid;
+    }
+
+    private void build(int root) {
+        final int planeOffset = ReachEngine.index(0, 0, plane);
+        int head = 0;
+        int tail = 0;
+        distance[root] = 0;
+        parent[root] = root;
+        queue[tail++] = root;
+        while (head < tail) {
+            int cur = queue[head++];
+            int sx = ReachEngine.gridX(cur);
+            int sy = ReachEngine.gridY(cur);
+            int d = distance[cur] + 1;
+            int f = snap.flagsAt(planeOffset + cur);
+            if (sx > 0 && (f & CollisionDataFlag.BLOCK_MOVEMENT_WEST) == 0)
+                tail = visit(cur, cur - ReachEngine.SIZE, d, planeOffset, tail);
+            if (sx < ReachEngine.SIZE - 1 && (f & CollisionDataFlag.BLOCK_MOVEMENT_EAST) == 0)
+                tail = visit(cur, cur + ReachEngine.SIZE, d, planeOffset, tail);
+            if (sy > 0 && (f & CollisionDataFlag.BLOCK_MOVEMENT_SOUTH) == 0)
+                tail = visit(cur, cur - 1, d, planeOffset, tail);
+            if (sy < ReachEngine.SIZE - 1 && (f & CollisionDataFlag.BLOCK_MOVEMENT_NORTH) == 0)
+                tail = visit(cur, cur + 1, d, planeOffset, tail);
+        }
+    }
+
+    private int visit(int from, int to, int d, int planeOffset, int tail) {
+        if (distance[to] != UNREACHABLE) return tail;
+        if ((snap.flagsAt(planeOffset + to) & CollisionDataFlag.BLOCK_MOVEMENT_FULL) != 0) return tail;
+        distance[to] = d;
+        parent[to] = from;
+        queue[tail] = to;
+        return tail + 1;
+    }
+
+    /** Path length from the root to the tile, or {@link #UNREACHABLE}. */
+    int distanceTo(int worldX, int worldY, int p) {
+        if (!valid || p != plane || !snap.contains(worldX, worldY, p)) return UNREACHABLE;
+        return distance[local(worldX, worldY)];
+    }
+
+    boolean isReachable(WorldPoint tile) {
+        return distanceTo(tile.getX(), tile.getY(), tile.getPlane()) != UNREACHABLE;
+    }
+
+    /** Closest tile from which the target is reached, with its path length, or null if none is reachable. */
+    IllumineReach.Approach approach(IllumineReach.TargetInfo t) {
+        if (!valid || t.plane != plane) return null;
+        int bestX = 0;
+        int bestY = 0;
+        int best = Integer.MAX_VALUE;
+        // Only the rectangle and its one-tile ring can satisfy the reach check
+        for (int x = t.destX - 1; x <= t.destX + t.width; x++) {
+            for (int y = t.destY - 1; y <= t.destY + t.length; y++) {
+                int d = distanceTo(x, y, plane);
+                if (d == UNREACHABLE || d >= best) continue;
+                if (IllumineReach.reached(snap, x, y, plane, t)) {
+                    best = d;
+                    bestX = x;
+                    bestY = y;
+                }
+            }
+        }
+        return best == Integer.MAX_VALUE ? null : new IllumineReach.Approach(new WorldPoint(bestX, bestY, plane), best);
+    }
+
+    /** Tiles from the root (exclusive) to the destination (inclusive); empty if unreachable. */
+    List<WorldPoint> pathTo(WorldPoint dest) {
+        if (distanceTo(dest.getX(), dest.getY(), dest.getPlane()) == UNREACHABLE) return Collections.emptyList();
+        ArrayList<WorldPoint> path = new ArrayList<>();
+        int baseX = snap.baseX();
+        int baseY = snap.baseY();
+        int cur = local(dest.getX(), dest.getY());
+        while (parent[cur] != cur) {
+            path.add(new WorldPoint(baseX + ReachEngine.gridX(cur), baseY + ReachEngine.gridY(cur), plane));
+            cur = parent[cur];
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    long hits() {
+        return hits;
+    }
+
+    long misses() {
+        return misses;
+    }
+
+    double hitRatio() {
+        long total = hits + misses;
+        return total == 0L ? 0.0 : (double) hits / (double) total;
+    }
+
+    private int local(int worldX, int worldY) {
+        return (worldX - snap.baseX()) * ReachEngine.SIZE + (worldY - snap.baseY());
+    }
+}
@@ -1,20 +1,24 @@
 package com.illumine.woodcutter;
 
+import com.illumine.util.DefinitionCache;
 import com.tonic.api.widgets.InventoryAPI;
-import com.tonic.data.ItemContainerEx;
 import com.tonic.data.ItemEx;
+import com.tonic.queries.InventoryQuery;
 import com.tonic.util.ClickManagerUtil;
 import net.runelite.api.gameval.InventoryID;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
 
 public enum DropStrategy
 {
     DROP_FULL(v -> InventoryAPI.isFull()),
-    DROP_EACH(v -> InventoryAPI.contains("Logs"))
+    DROP_EACH(v -> !logs().isEmpty())
     ;
 
+    private static final DefinitionCache.Matcher LOGS = DefinitionCache.ITEMS.named("Logs");
+
     private final Predicate<Void> condition;
 
     DropStrategy(Predicate<Void> condition)
@@ -33,11 +37,20 @@ public enum DropStrategy
     }
 
     private void dropLogs() {
-        ItemContainerEx container = new ItemContainerEx(InventoryID.INV);
-        List<ItemEx> items = container.getAll("Logs");
-        for(ItemEx item : items) {
+        for(ItemEx item : logs()) {
             ClickManagerUtil.queueClickBox(item);
             InventoryAPI.interact(item, "Drop");
         }
     }
+
+    // Matched by id, so only the first sighting of each id reads its definition
+    private static List<ItemEx> logs() {
+        List<ItemEx> out = new ArrayList<>();
+        for(ItemEx item : InventoryQuery.fromInventoryId(InventoryID.INV).collect()) {
+            if(item != null && LOGS.matches(item.getId())) {
+                out.add(item);
+            }
+        }
+        return out;
+    }
 }
@@ -2,20 +2,38 @@ package com.illumine.woodcutter;
 
 import com.google.inject.Provides;
 import com.tonic.Logger;
-import com.tonic.data.TileObjectEx;
 import com.tonic.queries.NpcQuery;
-import com.tonic.queries.TileObjectQuery;
-import com.tonic.services.pathfinder.Walker;
 import com.tonic.util.VitaPlugin;
 import com.tonic.api.game.SceneAPI;
 import net.runelite.api.Client;
+import net.runelite.api.GameState;
 import net.runelite.api.NPC;
+import net.runelite.api.coords.WorldArea;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.api.CollisionDataFlag;
+import net.runelite.api.events.DecorativeObjectDespawned;
+import net.runelite.api.events.DecorativeObjectSpawned;
+import net.runelite.api.events.GameObjectDespawned;
+import net.runelite.api.events.GameObjectSpawned;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.GroundObjectDespawned;
+import net.runelite.api.events.GroundObjectSpawned;
+import net.runelite.api.events.WallObjectDespawned;
+import net.runelite.api.events.WallObjectSpawned;
 import net.runelite.client.config.ConfigManager;
+import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.PluginDescriptor;
 
 import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @PluginDescriptor(
         name = "Illumine Reachability Logger",
@@ -30,8 +48,21 @@ public class ExamplePlugin extends VitaPlugin {
     @Inject
     private ExamplePluginConfig config;
 
+    private static final int RANK_LOG_LIMIT = 5;
+    private static final long CACHE_STATS_INTERVAL_MS = 60_000L;
+
     private long lastLogTs = 0L;
     private String lastSummary = null;
+    private volatile long lastCacheStatsTs = 0L;
+
+    private final TileObjectIndex objectIndex = new TileObjectIndex();
+
+    private ExecutorService reachExecutor;
+    private Future<String> pendingReach = null;
+    private ReachKey pendingKey = null;
+    // Last finished search; re-emitted as-is while its key still matches
+    private ReachKey cachedKey = null;
+    private String cachedSummary = null;
 
     @Provides
     ExamplePluginConfig provideConfig(ConfigManager configManager) {
@@ -40,12 +71,87 @@ public class ExamplePlugin extends VitaPlugin {
 
     @Override
     protected void startUp() {
-        // No UI; passive logger
+        // No UI; passive logger. One worker so reach searches queue behind each other instead of the loop
+        reachExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "illumine-reach");
+            t.setDaemon(true);
+            return t;
+        });
+        // Spawn events are not replayed for an already loaded scene; index it on the next tick
+        objectIndex.invalidate();
     }
 
     @Override
     protected void shutDown() {
-        // Nothing to clean up
+        pendingReach = null;
+        pendingKey = null;
+        cachedKey = null;
+        cachedSummary = null;
+        objectIndex.clear();
+        objectIndex.invalidate();
+        if (reachExecutor != null) {
+            reachExecutor.shutdownNow();
+            reachExecutor = null;
+        }
+    }
+
+    @Subscribe
+    public void onGameTick(GameTick event) {
+        // One collision copy per tick; every reach query this tick reads from it
+        IllumineReach.refreshSnapshot();
+        objectIndex.rebuildIfStale(client);
+    }
+
+    @Subscribe
+    public void onGameStateChanged(GameStateChanged event) {
+        if (event.getGameState() == GameState.LOADING) {
+            // The old scene's objects go without despawn events
+            objectIndex.clear();
+        } else if (event.getGameState() == GameState.LOGGED_IN) {
+            // Scene (re)loaded: flags and base coordinates may both have changed
+            IllumineReach.refreshSnapshot();
+            objectIndex.rebuild(client);
+        }
+    }
+
+    @Subscribe
+    public void onGameObjectSpawned(GameObjectSpawned event) {
+        objectIndex.add(client, event.getGameObject());
+    }
+
+    @Subscribe
+    public void onGameObjectDespawned(GameObjectDespawned event) {
+        objectIndex.remove(event.getGameObject());
+    }
+
+    @Subscribe
+    public void onWallObjectSpawned(WallObjectSpawned event) {
+        objectIndex.add(client, event.getWallObject());
+    }
+
+    @Subscribe
+    public void onWallObjectDespawned(WallObjectDespawned event) {
+        objectIndex.remove(event.getWallObject());
+    }
+
+    @Subscribe
+    public void onDecorativeObjectSpawned(DecorativeObjectSpawned event) {
+        objectIndex.add(client, event.getDecorativeObject());
+    }
+
+    @Subscribe
+    public void onDecorativeObjectDespawned(DecorativeObjectDespawned event) {
+        objectIndex.remove(event.getDecorativeObject());
+    }
+
+    @Subscribe
+    public void onGroundObjectSpawned(GroundObjectSpawned event) {
+        objectIndex.add(client, event.getGroundObject());
+    }
+
+    @Subscribe
+    public void onGroundObjectDespawned(GroundObjectDespawned event) {
+        objectIndex.remove(event.getGroundObject());
     }
 
     @Override
@@ -54,6 +160,13 @@ public class ExamplePlugin extends VitaPlugin {
             return;
         }
 
+        // Searches run on the reach worker; the loop only picks up finished results and never waits on one
+        if (pendingReach != null) {
+            if (!pendingReach.isDone()) return;
+            String result = takeReachResult();
+            if (result != null) logOnce(System.currentTimeMillis(), result);
+        }
+
 //         Rate limit identical logs
         int intervalMs = Math.max(250, config.getLogIntervalMs());
         long now = System.currentTimeMillis();
@@ -65,61 +178,35 @@ public class ExamplePlugin extends VitaPlugin {
         if (name.isEmpty()) return;
 
         WorldPoint from = client.getLocalPlayer().getWorldLocation();
+        // Pin the snapshot the client thread last published; neither the loop nor the worker may read collision data
+        CollisionSnapshot snap = IllumineReach.publishedSnapshot();
+        CollisionSource source = CollisionSource.of(snap);
+        long epoch = snap == null ? -1L : snap.epoch();
+
+        if (config.getRankByPathDistance()) {
+            submitRanking(now, source, epoch, name, from);
+            return;
+        }
+
+        SearchMode mode = config.getSearchMode();
+        boolean edgeDebug = config.getLogEdgeDebug();
 
         if (config.getTargetType() == TargetType.OBJECT) {
-            TileObjectEx obj = new TileObjectQuery<>()
-                    .withNameContains(name)
-                    .sortNearest()
-                    .first();
+            // Indexed by name from spawn events: only matching name buckets are walked, not the whole scene
+            TileObjectIndex.Entry obj = objectIndex.nearestNameContains(name, from);
 
             if (obj == null) {
                 logOnce(now, String.format("[Reach] type=OBJECT name=\"%s\" not found", name));
                 return;
             }
 
-            // Use object's world area; already reflects rotation extents
-            var area = obj.getWorldArea();
-            var target = IllumineReach.fromWorldArea(area, false);
-            WorldPoint approach = IllumineReach.findApproach(from, target);
-            boolean reachable = approach != null;
-            WorldPoint to = obj.getWorldLocation();
+            // Area from the object's scene extents, which already reflect rotation
+            WorldArea area = obj.area;
+            WorldPoint to = obj.location;
+            ReachKey key = new ReachKey("OBJECT " + name + " " + mode + (edgeDebug ? " edges" : ""), from, epoch, Collections.singletonList(area));
+            if (reuseCached(now, key)) return;
             boolean sceneReach = SceneAPI.isReachable(from, to);
-
-            // If not reachable from current position, compute best walkable approach tile
-            WorldPoint bestWalkable = null;
-            if (!reachable) {
-                var candidates = IllumineReach.approachCandidates(area);
-                // Filter to reach-valid and walker-acceptable targets
-                java.util.ArrayList<WorldPoint> valid = new java.util.ArrayList<>();
-                for (WorldPoint c : candidates) {
-                    if (IllumineReach.isValidApproachForArea(area, c, 0)) {
-                        var cm = Walker.getCollisionMap();
-                        if (cm != null && cm.walkable((short) c.getX(), (short) c.getY(), (byte) c.getPlane())) {
-                            valid.add(c);
-                        }
-                    }
-                }
-                if (!valid.isEmpty()) {
-                    valid.sort(java.util.Comparator.comparingInt(p -> p.distanceTo2D(from)));
-                    bestWalkable = valid.get(0);
-                }
-            }
-            if (reachable) {
-                logOnce(now, String.format(
-                        "[Reach] type=OBJECT name=\"%s\" loc=(%d,%d,%d) reachable=true approach=(%d,%d,%d) sceneReachable=%s",
-                        name, to.getX(), to.getY(), to.getPlane(), approach.getX(), approach.getY(), approach.getPlane(), sceneReach));
-            } else {
-                if (bestWalkable != null) {
-                    logOnce(now, String.format(
-                            "[Reach] type=OBJECT name=\"%s\" loc=(%d,%d,%d) reachable=false sceneReachable=%s bestWalkable=(%d,%d,%d)",
-                            name, to.getX(), to.getY(), to.getPlane(), sceneReach, bestWalkable.getX(), bestWalkable.getY(), bestWalkable.getPlane()));
-                } else {
-                    logOnce(now, String.format(
-                            "[Reach] type=OBJECT name=\"%s\" loc=(%d,%d,%d) reachable=false sceneReachable=%s bestWalkable=(none)",
-                            name, to.getX(), to.getY(), to.getPlane(), sceneReach));
-                }
-                if (config.getLogEdgeDebug()) debugEdges(from, area);
-            }
+            submitReach(key, () -> describeReach(source, "OBJECT", name, from, to, area, false, sceneReach, mode, edgeDebug));
             return;
         }
 
@@ -135,46 +222,144 @@ public class ExamplePlugin extends VitaPlugin {
         }
 
         // Actors use exclusive rectangle reach (must be adjacent and unblocked)
-        var area = npc.getWorldArea();
-        var target = IllumineReach.fromWorldArea(area, true);
-        WorldPoint approach = IllumineReach.findApproach(from, target);
-        boolean reachable = approach != null;
+        WorldArea area = npc.getWorldArea();
         WorldPoint to = npc.getWorldLocation();
+        ReachKey key = new ReachKey("NPC " + name + " " + mode + (edgeDebug ? " edges" : ""), from, epoch, Collections.singletonList(area));
+        if (reuseCached(now, key)) return;
         boolean sceneReach = SceneAPI.isReachable(from, to);
+        submitReach(key, () -> describeReach(source, "NPC", name, from, to, area, true, sceneReach, mode, edgeDebug));
+    }
 
-        WorldPoint bestWalkable = null;
-        if (!reachable) {
-            var candidates = IllumineReach.approachCandidates(area);
-            java.util.ArrayList<WorldPoint> valid = new java.util.ArrayList<>();
-            for (WorldPoint c : candidates) {
-                if (IllumineReach.isValidApproachForArea(area, c, 0)) {
-                    var cm = Walker.getCollisionMap();
-                    if (cm != null && cm.walkable((short) c.getX(), (short) c.getY(), (byte) c.getPlane())) {
-                        valid.add(c);
-                    }
-                }
-            }
-            if (!valid.isEmpty()) {
-                valid.sort(java.util.Comparator.comparingInt(p -> p.distanceTo2D(from)));
-                bestWalkable = valid.get(0);
-            }
+    /** Nothing relevant moved since the last search: log its summary again and skip all path work. */
+    private boolean reuseCached(long now, ReachKey key) {
+        if (cachedSummary == null || !key.equals(cachedKey)) return false;
+        logOnce(now, cachedSummary);
+        return true;
+    }
+
+    private void submitReach(ReachKey key, Callable<String> search) {
+        pendingKey = key;
+        pendingReach = reachExecutor.submit(search);
+    }
+
+    private String takeReachResult() {
+        Future<String> done = pendingReach;
+        ReachKey key = pendingKey;
+        pendingReach = null;
+        pendingKey = null;
+        try {
+            String summary = done.get();
+            cachedKey = key;
+            cachedSummary = summary;
+            return summary;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | CancellationException e) {
+            Logger.warn("[Reach] search failed: " + e);
+        }
+        return null;
+    }
+
+    // Runs on the reach worker: only snapshot-backed IllumineReach calls, no client access
+    private String describeReach(CollisionSource source, String type, String name, WorldPoint from, WorldPoint to,
+                                 WorldArea area, boolean exclusive, boolean sceneReach, SearchMode mode, boolean edgeDebug) {
+        var target = IllumineReach.fromWorldArea(area, exclusive);
+        IllumineReach.Approach found = resolveApproach(source, from, target, mode);
+        if (found != null) {
+            WorldPoint approach = found.tile;
+            return String.format(
+                    "[Reach] type=%s name=\"%s\" loc=(%d,%d,%d) reachable=true approach=(%d,%d,%d) path=%d sceneReachable=%s",
+                    type, name, to.getX(), to.getY(), to.getPlane(), approach.getX(), approach.getY(), approach.getPlane(), found.pathLength, sceneReach);
+        }
+
+        if (edgeDebug) debugEdges(source, from, area);
+        // Scene flags in range, global map beyond: edge validity and walkability in a single pass
+        WorldPoint bestWalkable = IllumineReach.bestWalkableApproach(source, area, from);
+        if (bestWalkable != null) {
+            return String.format(
+                    "[Reach] type=%s name=\"%s\" loc=(%d,%d,%d) reachable=false sceneReachable=%s bestWalkable=(%d,%d,%d)",
+                    type, name, to.getX(), to.getY(), to.getPlane(), sceneReach, bestWalkable.getX(), bestWalkable.getY(), bestWalkable.getPlane());
         }
-        if (reachable) {
-            logOnce(now, String.format(
-                    "[Reach] type=NPC name=\"%s\" loc=(%d,%d,%d) reachable=true approach=(%d,%d,%d) sceneReachable=%s",
-                    name, to.getX(), to.getY(), to.getPlane(), approach.getX(), approach.getY(), approach.getPlane(), sceneReach));
+        return String.format(
+                "[Reach] type=%s name=\"%s\" loc=(%d,%d,%d) reachable=false sceneReachable=%s bestWalkable=(none)",
+                type, name, to.getX(), to.getY(), to.getPlane(), sceneReach);
+    }
+
+    private IllumineReach.Approach resolveApproach(CollisionSource source, WorldPoint from, IllumineReach.TargetInfo target, SearchMode mode) {
+        // Different connected region: unreachable without touching the distance field
+        if (!IllumineReach.mayReach(source, from, target)) return null;
+        if (mode != null && mode != SearchMode.BFS) {
+            IllumineReach.Approach searched = IllumineReach.approach(source, from, target.withMode(mode));
+            Logger.info(String.format("[ReachSearch] mode=%s expanded=%d path=%s",
+                    mode, IllumineReach.lastNodesExpanded(), searched == null ? "none" : Integer.toString(searched.pathLength)));
+            return searched;
+        }
+        // Cached field rooted at the player: a lookup while standing still, one flood after moving.
+        // Only the reach worker touches the field, which keeps it single-threaded.
+        DistanceField field = IllumineReach.distanceField(source, from);
+        if (field == null) return null;
+        long now = System.currentTimeMillis();
+        if (now - lastCacheStatsTs >= CACHE_STATS_INTERVAL_MS) {
+            lastCacheStatsTs = now;
+            Logger.info(String.format("[ReachCache] distanceField hits=%d misses=%d hitRatio=%.1f%%",
+                    field.hits(), field.misses(), field.hitRatio() * 100.0));
+        }
+        return field.approach(target);
+    }
+
+    private void submitRanking(long now, CollisionSource source, long epoch, String name, WorldPoint from) {
+        TargetType type = config.getTargetType();
+        java.util.ArrayList<WorldPoint> locations = new java.util.ArrayList<>();
+        java.util.ArrayList<WorldArea> areas = new java.util.ArrayList<>();
+        java.util.ArrayList<IllumineReach.TargetInfo> targets = new java.util.ArrayList<>();
+        if (type == TargetType.OBJECT) {
+            for (TileObjectIndex.Entry obj : objectIndex.nameContains(name)) {
+                WorldArea area = obj.area;
+                locations.add(obj.location);
+                areas.add(area);
+                targets.add(IllumineReach.fromWorldArea(area, false));
+            }
         } else {
-            if (bestWalkable != null) {
-                logOnce(now, String.format(
-                        "[Reach] type=NPC name=\"%s\" loc=(%d,%d,%d) reachable=false sceneReachable=%s bestWalkable=(%d,%d,%d)",
-                        name, to.getX(), to.getY(), to.getPlane(), sceneReach, bestWalkable.getX(), bestWalkable.getY(), bestWalkable.getPlane()));
-            } else {
-                logOnce(now, String.format(
-                        "[Reach] type=NPC name=\"%s\" loc=(%d,%d,%d) reachable=false sceneReachable=%s bestWalkable=(none)",
-                        name, to.getX(), to.getY(), to.getPlane(), sceneReach));
+            for (NPC npc : new NpcQuery().withNameContains(name).collect()) {
+                WorldArea area = npc.getWorldArea();
+                locations.add(npc.getWorldLocation());
+                areas.add(area);
+                targets.add(IllumineReach.fromWorldArea(area, true));
             }
-            if (config.getLogEdgeDebug()) debugEdges(from, area);
         }
+
+        if (targets.isEmpty()) {
+            logOnce(now, String.format("[Reach] type=%s name=\"%s\" not found", type, name));
+            return;
+        }
+        ReachKey key = new ReachKey("RANK " + type + " " + name, from, epoch, areas);
+        if (reuseCached(now, key)) return;
+        submitReach(key, () -> describeRanking(source, type, name, from, locations, targets));
+    }
+
+    // Runs on the reach worker
+    private static String describeRanking(CollisionSource source, TargetType type, String name, WorldPoint from,
+                                          java.util.List<WorldPoint> locations, java.util.List<IllumineReach.TargetInfo> targets) {
+        // One flood from the player resolves every candidate's approach tile and path length
+        IllumineReach.Approach[] approaches = IllumineReach.findApproaches(source, from, targets);
+        java.util.ArrayList<Integer> order = new java.util.ArrayList<>();
+        for (int i = 0; i < approaches.length; i++) {
+            if (approaches[i] != null) order.add(i);
+        }
+        order.sort(java.util.Comparator.comparingInt(i -> approaches[i].pathLength));
+
+        StringBuilder sb = new StringBuilder(String.format(
+                "[Reach] rank type=%s name=\"%s\" matches=%d reachable=%d",
+                type, name, targets.size(), order.size()));
+        for (int r = 0; r < order.size() && r < RANK_LOG_LIMIT; r++) {
+            int i = order.get(r);
+            WorldPoint loc = locations.get(i);
+            WorldPoint approach = approaches[i].tile;
+            sb.append(String.format(" #%d loc=(%d,%d,%d) path=%d approach=(%d,%d,%d)",
+                    r + 1, loc.getX(), loc.getY(), loc.getPlane(), approaches[i].pathLength,
+                    approach.getX(), approach.getY(), approach.getPlane()));
+        }
+        return sb.toString();
     }
 
     private void logOnce(long now, String summary) {
@@ -192,11 +377,11 @@ public class ExamplePlugin extends VitaPlugin {
         return s == null ? "" : s.trim();
     }
 
-    private void debugEdges(WorldPoint src, net.runelite.api.coords.WorldArea area) {
+    private static void debugEdges(CollisionSource source, WorldPoint src, WorldArea area) {
         int sx = src.getX();
         int sy = src.getY();
         int p = src.getPlane();
-        int flags = IllumineReach.tileFlags(sx, sy, p);
+        int flags = IllumineReach.tileFlags(source, sx, sy, p);
         boolean bE = (flags & CollisionDataFlag.BLOCK_MOVEMENT_EAST) != 0;
         boolean bW = (flags & CollisionDataFlag.BLOCK_MOVEMENT_WEST) != 0;
         boolean bN = (flags & CollisionDataFlag.BLOCK_MOVEMENT_NORTH) != 0;
@@ -218,4 +403,53 @@ public class ExamplePlugin extends VitaPlugin {
                 "[EdgeDebug] src=(%d,%d,%d) side=%s flags: E=%s W=%s N=%s S=%s mask=%d",
                 sx, sy, p, side, bE, bW, bN, bS, 0));
     }
+
+    /**
+     * What a reach summary depends on: the query (target, search mode, edge debug), the player tile, every target
+     * area and the collision epoch.
+     */
+    private static final class ReachKey {
+        private final String query;
+        private final int fromX;
+        private final int fromY;
+        private final int plane;
+        private final long epoch;
+        private final int[] areas; // x, y, plane, width, height per target
+
+        ReachKey(String query, WorldPoint from, long epoch, java.util.List<WorldArea> targets) {
+            this.query = query;
+            this.fromX = from.getX();
+            this.fromY = from.getY();
+            this.plane = from.getPlane();
+            this.epoch = epoch;
+            this.areas = new int[targets.size() * 5];
+            int i = 0;
+            for (WorldArea a : targets) {
+                areas[i++] = a.getX();
+                areas[i++] = a.getY();
+                areas[i++] = a.getPlane();
+                areas[i++] = a.getWidth();
+                areas[i++] = a.getHeight();
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ReachKey)) return false;
+            ReachKey k = (ReachKey) o;
+            return fromX == k.fromX && fromY == k.fromY && plane == k.plane && epoch == k.epoch
+                    && query.equals(k.query) && Arrays.equals(areas, k.areas);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = query.hashCode();
+            h = 31 * h + fromX;
+            h = 31 * h + fromY;
+            h = 31 * h + plane;
+            h = 31 * h + Long.hashCode(epoch);
+            return 31 * h + Arrays.hashCode(areas);
+        }
+    }
 }
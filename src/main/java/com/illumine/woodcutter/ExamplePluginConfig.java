@@ -62,6 +62,36 @@ public interface ExamplePluginConfig extends Config
     )
     void setLogEdgeDebug(boolean v);
 
+    @ConfigItem(
+            keyName = "rankByPathDistance",
+            name = "Rank By Walking Distance",
+            description = "Rank every matching target by true path length (single flood) instead of logging only the nearest",
+            position = 12
+    )
+    default boolean getRankByPathDistance() { return false; }
+    @ConfigItem(
+            keyName = "rankByPathDistance",
+            name = "Rank By Walking Distance",
+            description = "Rank every matching target by true path length (single flood) instead of logging only the nearest",
+            position = 12
+    )
+    void setRankByPathDistance(boolean v);
+
+    @ConfigItem(
+            keyName = "searchMode",
+            name = "Search Mode",
+            description = "BFS uses the cached distance field; A*/bidirectional run a search per query and log nodes expanded",
+            position = 13
+    )
+    default SearchMode getSearchMode() { return SearchMode.BFS; }
+    @ConfigItem(
+            keyName = "searchMode",
+            name = "Search Mode",
+            description = "BFS uses the cached distance field; A*/bidirectional run a search per query and log nodes expanded",
+            position = 13
+    )
+    void setSearchMode(SearchMode mode);
+
     // Legacy fields retained for compatibility (not used)
     @ConfigItem(
             keyName = "dropStrategy",
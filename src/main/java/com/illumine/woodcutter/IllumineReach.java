@@ -1,76 +1,435 @@
 package com.illumine.woodcutter;
 
 import com.tonic.Static;
-import com.tonic.services.pathfinder.local.LocalCollisionMap;
-import com.tonic.util.WorldPointUtil;
 import net.runelite.api.Client;
-import net.runelite.api.CollisionData;
 import net.runelite.api.CollisionDataFlag;
-import net.runelite.api.coords.LocalPoint;
-import net.runelite.api.WorldView;
 import net.runelite.api.coords.WorldArea;
 import net.runelite.api.coords.WorldPoint;
 
-import java.util.ArrayDeque;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
 final class IllumineReach {
     private IllumineReach() {}
 
+    private static final int LIMIT = 20000;
+    private static final int PRIORITY_SCALE = Integer.highestOneBit(ReachEngine.PLANE_TILES) << 1; // > max path length on one grid plane
+    // Largest f that still packs into an int key; a far-off target only needs its f to sort after every nearer one
+    private static final int MAX_PRIORITY_F = Integer.MAX_VALUE / PRIORITY_SCALE - 1;
+    // Search state is per thread, so queries on a background executor never share buffers with the loop
+    private static final ThreadLocal<ReachEngine> ENGINES = ThreadLocal.withInitial(ReachEngine::new);
+
+    private static final DistanceField FIELD = new DistanceField();
+    private static final SceneRegions REGIONS = new SceneRegions();
+
+    private static volatile CollisionSnapshot snapshot = null;
+    private static volatile int snapshotTick = Integer.MIN_VALUE;
+
+    /** Live source: the current tick's snapshot, captured lazily. Only safe where the client may be read. */
+    static final CollisionSource LIVE = IllumineReach::snapshot;
+
+    /** Re-captures the collision flags; called once per game tick and on scene load. */
+    static CollisionSnapshot refreshSnapshot() {
+        Client client = Static.getClient();
+        if (client == null) return null;
+        CollisionSnapshot snap = CollisionSnapshot.capture(client);
+        snapshot = snap;
+        snapshotTick = client.getTickCount();
+        return snap;
+    }
+
+    /**
+     * Last snapshot published by {@link #refreshSnapshot()}, never capturing; for threads that must not read the
+     * client (the script loop, workers). Null until the first refresh.
+     */
+    static CollisionSnapshot publishedSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Snapshot for the current tick, captured lazily if nobody refreshed it this tick yet. Client thread only;
+     * other threads use {@link #publishedSnapshot()}.
+     */
+    static CollisionSnapshot snapshot() {
+        CollisionSnapshot snap = snapshot;
+        Client client = Static.getClient();
+        if (snap == null || (client != null && client.getTickCount() != snapshotTick)) {
+            snap = refreshSnapshot();
+        }
+        return snap;
+    }
+
+    static DistanceField distanceField(WorldPoint from) {
+        return distanceField(LIVE, from);
+    }
+
+    /**
+     * Distance field rooted at {@code from}; rebuilt only if the player tile or the collision checksum changed
+     * since the previous call. Returns null when no snapshot is available. There is one shared field, so callers
+     * must stick to a single thread.
+     */
+    static DistanceField distanceField(CollisionSource source, WorldPoint from) {
+        CollisionSnapshot snap = source.snapshot();
+        if (snap == null) return null;
+        FIELD.ensure(snap, from);
+        return FIELD;
+    }
+
+    /**
+     * Constant-time rejection using scene connectivity labels: false means the target is certainly unreachable
+     * from {@code from}; true means a search is needed to know. Labels follow the current snapshot, fully
+     * relabelled on scene load and patched locally when collision changes.
+     */
+    static boolean mayReach(WorldPoint from, TargetInfo target) {
+        return mayReach(LIVE, from, target);
+    }
+
+    static boolean mayReach(CollisionSource source, WorldPoint from, TargetInfo target) {
+        CollisionSnapshot snap = source.snapshot();
+        if (snap == null) return true;
+        return REGIONS.mayReach(snap, from, target);
+    }
+
     static WorldPoint findApproach(WorldPoint from, TargetInfo target) {
+        return findApproach(LIVE, from, target);
+    }
+
+    static WorldPoint findApproach(CollisionSource source, WorldPoint from, TargetInfo target) {
+        Approach approach = approach(source, from, target);
+        return approach == null ? null : approach.tile;
+    }
+
+    static Approach approach(WorldPoint from, TargetInfo target) {
+        return approach(LIVE, from, target);
+    }
+
+    /** As {@link #findApproach}, also returning the path length. The target's {@link SearchMode} picks the search. */
+    static Approach approach(CollisionSource source, WorldPoint from, TargetInfo target) {
+        ENGINES.get().expanded(0);
         if (from.getPlane() != target.plane) return null;
+        // One snapshot for the whole query, even if the source moves on meanwhile
+        CollisionSnapshot snap = source.snapshot();
+        if (snap == null) return null;
+        if (!mayReach(CollisionSource.of(snap), from, target)) return null;
+        if (!snap.contains(from.getX(), from.getY(), from.getPlane())) return null;
+        int start = snap.index(from.getX(), from.getY(), from.getPlane());
 
-        ArrayDeque<Integer> q = new ArrayDeque<>();
-        Set<Integer> seen = new HashSet<>();
-        int start = WorldPointUtil.compress(from.getX(), from.getY(), from.getPlane());
-        q.add(start);
-        seen.add(start);
+        switch (target.mode) {
+            case A_STAR:
+                return searchAStar(snap, start, target);
+            case BIDIRECTIONAL:
+                return searchBidirectional(snap, start, target);
+            case BFS:
+            default:
+                return searchBfs(snap, start, target);
+        }
+    }
 
-        int explored = 0;
-        final int LIMIT = 20000;
+    /** Nodes expanded by the most recent {@link #approach}/{@link #findApproach} call on the calling thread. */
+    static int lastNodesExpanded() {
+        return ENGINES.get().expanded();
+    }
 
-        while (!q.isEmpty() && explored < LIMIT) {
-            int cur = q.poll();
+    private static Approach searchBfs(CollisionSnapshot snap, int start, TargetInfo target) {
+        final int baseX = snap.baseX();
+        final int baseY = snap.baseY();
+        final int p = target.plane;
+
+        ReachEngine engine = ENGINES.get();
+        engine.begin();
+        engine.offer(start, 0);
+
+        int explored = 0;
+        while (!engine.isEmpty() && explored < LIMIT) {
+            int cur = engine.poll();
             explored++;
-            short x = WorldPointUtil.getCompressedX(cur);
-            short y = WorldPointUtil.getCompressedY(cur);
-            byte p = WorldPointUtil.getCompressedPlane(cur);
+            int sx = ReachEngine.gridX(cur);
+            int sy = ReachEngine.gridY(cur);
+            int x = baseX + sx;
+            int y = baseY + sy;
+            int d = engine.distance(cur);
 
-            if (reached(x, y, p, target)) {
-                return new WorldPoint(x, y, p);
+            if (reached(snap, x, y, p, target)) {
+                engine.expanded(explored);
+                return new Approach(new WorldPoint(x, y, p), d);
             }
 
             // Expand 4-neighborhood using raw collision flags (no door overrides)
-            int f = tileFlags(x, y, p);
+            int f = snap.flagsAt(cur);
             // West
-            if ((f & CollisionDataFlag.BLOCK_MOVEMENT_WEST) == 0 && notFull(x - 1, y, p))
-                enqueue(seen, q, WorldPointUtil.compress(x - 1, y, p));
+            if (sx > 0 && (f & CollisionDataFlag.BLOCK_MOVEMENT_WEST) == 0 && open(snap, cur - ReachEngine.SIZE))
+                engine.offer(cur - ReachEngine.SIZE, d + 1);
             // East
-            if ((f & CollisionDataFlag.BLOCK_MOVEMENT_EAST) == 0 && notFull(x + 1, y, p))
-                enqueue(seen, q, WorldPointUtil.compress(x + 1, y, p));
+            if (sx < ReachEngine.SIZE - 1 && (f & CollisionDataFlag.BLOCK_MOVEMENT_EAST) == 0 && open(snap, cur + ReachEngine.SIZE))
+                engine.offer(cur + ReachEngine.SIZE, d + 1);
             // South
-            if ((f & CollisionDataFlag.BLOCK_MOVEMENT_SOUTH) == 0 && notFull(x, y - 1, p))
-                enqueue(seen, q, WorldPointUtil.compress(x, y - 1, p));
+            if (sy > 0 && (f & CollisionDataFlag.BLOCK_MOVEMENT_SOUTH) == 0 && open(snap, cur - 1))
+                engine.offer(cur - 1, d + 1);
             // North
-            if ((f & CollisionDataFlag.BLOCK_MOVEMENT_NORTH) == 0 && notFull(x, y + 1, p))
-                enqueue(seen, q, WorldPointUtil.compress(x, y + 1, p));
+            if (sy < ReachEngine.SIZE - 1 && (f & CollisionDataFlag.BLOCK_MOVEMENT_NORTH) == 0 && open(snap, cur + 1))
+                engine.offer(cur + 1, d + 1);
         }
 
+        engine.expanded(explored);
         return null;
     }
 
-    private static void enqueue(Set<Integer> seen, ArrayDeque<Integer> q, int n) {
-        if (seen.add(n)) q.add(n);
+    private static Approach searchAStar(CollisionSnapshot snap, int start, TargetInfo target) {
+        final int baseX = snap.baseX();
+        final int baseY = snap.baseY();
+        final int p = target.plane;
+
+        ReachEngine engine = ENGINES.get();
+        engine.begin();
+        engine.relax(start, 0, priority(heuristic(baseX + ReachEngine.gridX(start), baseY + ReachEngine.gridY(start), target), 0));
+
+        int explored = 0;
+        while (!engine.heapEmpty() && explored < LIMIT) {
+            int cur = engine.pollMin();
+            if (!engine.close(cur)) continue;
+            explored++;
+            int x = baseX + ReachEngine.gridX(cur);
+            int y = baseY + ReachEngine.gridY(cur);
+            int d = engine.distance(cur);
+
+            if (reached(snap, x, y, p, target)) {
+                engine.expanded(explored);
+                return new Approach(new WorldPoint(x, y, p), d);
+            }
+
+            for (int dir = 0; dir < 4; dir++) {
+                int next = step(snap, cur, dir);
+                if (next < 0) continue;
+                int h = heuristic(baseX + ReachEngine.gridX(next), baseY + ReachEngine.gridY(next), target);
+                engine.relax(next, d + 1, priority(d + 1 + h, d + 1));
+            }
+        }
+
+        engine.expanded(explored);
+        return null;
     }
 
-    private static boolean reached(int srcX, int srcY, int plane, TargetInfo t) {
+    /**
+     * Breadth-first from both ends: forward from the player, backward from every tile that satisfies the reach
+     * check. The smaller frontier advances one full layer at a time; the search ends after the first layer in
+     * which the two sides meet, keeping the shortest meeting found in that layer.
+     */
+    private static Approach searchBidirectional(CollisionSnapshot snap, int start, TargetInfo target) {
+        final int baseX = snap.baseX();
+        final int baseY = snap.baseY();
+        final int p = target.plane;
+
+        ReachEngine engine = ENGINES.get();
+        engine.begin();
+
+        boolean seeded = false;
+        for (int x = target.destX - 1; x <= target.destX + target.width; x++) {
+            for (int y = target.destY - 1; y <= target.destY + target.length; y++) {
+                if (!snap.contains(x, y, p) || !reached(snap, x, y, p, target)) continue;
+                int idx = snap.index(x, y, p);
+                if (idx == start) {
+                    engine.expanded(1);
+                    return new Approach(new WorldPoint(x, y, p), 0);
+                }
+                if (!open(snap, idx)) continue;
+                engine.offerBackward(idx, 0, idx);
+                seeded = true;
+            }
+        }
+        if (!seeded) return null;
+        engine.offer(start, 0);
+
+        int explored = 0;
+        int best = Integer.MAX_VALUE;
+        int bestOrigin = -1;
+        while (bestOrigin < 0 && explored < LIMIT && engine.size() > 0 && engine.backwardSize() > 0) {
+            if (engine.size() <= engine.backwardSize()) {
+                for (int n = engine.size(); n > 0; n--) {
+                    int cur = engine.poll();
+                    explored++;
+                    int d = engine.distance(cur) + 1;
+                    for (int dir = 0; dir < 4; dir++) {
+                        int next = step(snap, cur, dir);
+                        if (next < 0 || !engine.offer(next, d) || !engine.isVisitedBackward(next)) continue;
+                        int total = d + engine.backwardDistance(next);
+                        if (total < best) {
+                            best = total;
+                            bestOrigin = engine.backwardOrigin(next);
+                        }
+                    }
+                }
+            } else {
+                for (int n = engine.backwardSize(); n > 0; n--) {
+                    int cur = engine.pollBackward();
+                    explored++;
+                    int d = engine.backwardDistance(cur) + 1;
+                    int origin = engine.backwardOrigin(cur);
+                    for (int dir = 0; dir < 4; dir++) {
+                        int prev = stepBack(snap, cur, dir, start);
+                        if (prev < 0 || !engine.offerBackward(prev, d, origin) || !engine.isVisited(prev)) continue;
+                        int total = d + engine.distance(prev);
+                        if (total < best) {
+                            best = total;
+                            bestOrigin = origin;
+                        }
+                    }
+                }
+            }
+        }
+
+        engine.expanded(explored);
+        if (bestOrigin < 0) return null;
+        return new Approach(new WorldPoint(baseX + ReachEngine.gridX(bestOrigin), baseY + ReachEngine.gridY(bestOrigin), p), best);
+    }
+
+    // Manhattan distance to the target rectangle minus the final adjacent step; admissible and consistent
+    private static int heuristic(int x, int y, TargetInfo t) {
+        int dx = Math.max(0, Math.max(t.destX - x, x - (t.destX + t.width - 1)));
+        int dy = Math.max(0, Math.max(t.destY - y, y - (t.destY + t.length - 1)));
+        return Math.max(0, dx + dy - 1);
+    }
+
+    // Orders by f, breaking ties toward the deeper node so A* runs straight at the target on open ground
+    private static int priority(int f, int g) {
+        return Math.min(f, MAX_PRIORITY_F) * PRIORITY_SCALE + (PRIORITY_SCALE - 1 - g);
+    }
+
+    /** Neighbour of {@code cur} in direction 0..3 (W, E, S, N) if the move is allowed, else -1. */
+    private static int step(CollisionSnapshot snap, int cur, int dir) {
+        int sx = ReachEngine.gridX(cur);
+        int sy = ReachEngine.gridY(cur);
+        int f = snap.flagsAt(cur);
+        int next;
+        switch (dir) {
+            case 0:
+                if (sx == 0 || (f & CollisionDataFlag.BLOCK_MOVEMENT_WEST) != 0) return -1;
+                next = cur - ReachEngine.SIZE;
+                break;
+            case 1:
+                if (sx == ReachEngine.SIZE - 1 || (f & CollisionDataFlag.BLOCK_MOVEMENT_EAST) != 0) return -1;
+                next = cur + ReachEngine.SIZE;
+                break;
+            case 2:
+                if (sy == 0 || (f & CollisionDataFlag.BLOCK_MOVEMENT_SOUTH) != 0) return -1;
+                next = cur - 1;
+                break;
+            default:
+                if (sy == ReachEngine.SIZE - 1 || (f & CollisionDataFlag.BLOCK_MOVEMENT_NORTH) != 0) return -1;
+                next = cur + 1;
+                break;
+        }
+        return open(snap, next) ? next : -1;
+    }
+
+    /** Neighbour in direction 0..3 (W, E, S, N) that can step onto {@code cur}, else -1. */
+    private static int stepBack(CollisionSnapshot snap, int cur, int dir, int start) {
+        int sx = ReachEngine.gridX(cur);
+        int sy = ReachEngine.gridY(cur);
+        int prev;
+        int blockFlag;
+        switch (dir) {
+            case 0:
+                if (sx == 0) return -1;
+                prev = cur - ReachEngine.SIZE;
+                blockFlag = CollisionDataFlag.BLOCK_MOVEMENT_EAST;
+                break;
+            case 1:
+                if (sx == ReachEngine.SIZE - 1) return -1;
+                prev = cur + ReachEngine.SIZE;
+                blockFlag = CollisionDataFlag.BLOCK_MOVEMENT_WEST;
+                break;
+            case 2:
+                if (sy == 0) return -1;
+                prev = cur - 1;
+                blockFlag = CollisionDataFlag.BLOCK_MOVEMENT_NORTH;
+                break;
+            default:
+                if (sy == ReachEngine.SIZE - 1) return -1;
+                prev = cur + 1;
+                blockFlag = CollisionDataFlag.BLOCK_MOVEMENT_SOUTH;
+                break;
+        }
+        if ((snap.flagsAt(prev) & blockFlag) != 0) return -1;
+        // The forward search expands its start tile even when it is flagged full
+        return (prev == start || open(snap, prev)) ? prev : -1;
+    }
+
+    /**
+     * Runs a single flood from {@code from} and resolves every target in one pass. The result is parallel to
+     * {@code targets}: the nearest approach tile and its path length, or null where a target was not reached.
+     */
+    static Approach[] findApproaches(WorldPoint from, List<TargetInfo> targets) {
+        return findApproaches(LIVE, from, targets);
+    }
+
+    static Approach[] findApproaches(CollisionSource source, WorldPoint from, List<TargetInfo> targets) {
+        Approach[] out = new Approach[targets.size()];
+        CollisionSnapshot snap = source.snapshot();
+        if (snap == null || targets.isEmpty()) return out;
+        final int baseX = snap.baseX();
+        final int baseY = snap.baseY();
+        final int p = from.getPlane();
+        if (!snap.contains(from.getX(), from.getY(), p)) return out;
+
+        // Targets in another connected region can never be reached; leave them out of the flood
+        boolean[] skip = new boolean[out.length];
+        int remaining = 0;
+        for (int i = 0; i < out.length; i++) {
+            skip[i] = !REGIONS.mayReach(snap, from, targets.get(i));
+            if (!skip[i]) remaining++;
+        }
+        if (remaining == 0) return out;
+
+        ReachEngine engine = ENGINES.get();
+        engine.begin();
+        engine.offer(snap.index(from.getX(), from.getY(), p), 0);
+
+        int explored = 0;
+        while (!engine.isEmpty() && explored < LIMIT) {
+            int cur = engine.poll();
+            explored++;
+            int sx = ReachEngine.gridX(cur);
+            int sy = ReachEngine.gridY(cur);
+            int x = baseX + sx;
+            int y = baseY + sy;
+            int d = engine.distance(cur);
+
+            // BFS order means the first node that reaches a target is its shortest approach
+            for (int i = 0; i < out.length; i++) {
+                if (skip[i] || out[i] != null) continue;
+                TargetInfo t = targets.get(i);
+                if (reached(snap, x, y, p, t)) {
+                    out[i] = new Approach(new WorldPoint(x, y, p), d);
+                    remaining--;
+                }
+            }
+            if (remaining == 0) break;
+
+            int f = snap.flagsAt(cur);
+            if (sx > 0 && (f & CollisionDataFlag.BLOCK_MOVEMENT_WEST) == 0 && open(snap, cur - ReachEngine.SIZE))
+                engine.offer(cur - ReachEngine.SIZE, d + 1);
+            if (sx < ReachEngine.SIZE - 1 && (f & CollisionDataFlag.BLOCK_MOVEMENT_EAST) == 0 && open(snap, cur + ReachEngine.SIZE))
+                engine.offer(cur + ReachEngine.SIZE, d + 1);
+            if (sy > 0 && (f & CollisionDataFlag.BLOCK_MOVEMENT_SOUTH) == 0 && open(snap, cur - 1))
+                engine.offer(cur - 1, d + 1);
+            if (sy < ReachEngine.SIZE - 1 && (f & CollisionDataFlag.BLOCK_MOVEMENT_NORTH) == 0 && open(snap, cur + 1))
+                engine.offer(cur + 1, d + 1);
+        }
+
+        engine.expanded(explored);
+        return out;
+    }
+
+    private static boolean open(CollisionSnapshot snap, int index) {
+        return (snap.flagsAt(index) & CollisionDataFlag.BLOCK_MOVEMENT_FULL) == 0;
+    }
+
+    static boolean reached(CollisionSnapshot snap, int srcX, int srcY, int plane, TargetInfo t) {
         // If target tile itself (for rectangles) is reached, accept unless exclusive
         boolean inside = collides(srcX, srcY, t.destX, t.destY, 1, 1, t.width, t.length);
         if (inside) return !t.exclusive; // actors: exclusive => must not collide
 
         // For size-1 source, use rectangle adjacency + edge checks (unblocked edges)
-        return reachRectangle1(plane, srcX, srcY, t.destX, t.destY, t.width, t.length, t.blockAccessFlags);
+        return reachRectangle1(snap, plane, srcX, srcY, t.destX, t.destY, t.width, t.length, t.blockAccessFlags);
     }
 
     private static boolean collides(int srcX, int srcY, int destX, int destY, int srcW, int srcL, int destW, int destL) {
@@ -78,7 +437,7 @@ final class IllumineReach {
         return srcY < destY + destL && destY < srcL + srcY;
     }
 
-    private static boolean reachRectangle1(int plane,
+    private static boolean reachRectangle1(CollisionSnapshot snap, int plane,
                                            int srcX, int srcY,
                                            int destX, int destY,
                                            int destW, int destL,
@@ -88,19 +447,19 @@ final class IllumineReach {
 
         // West of rectangle: need east edge from src unblocked
         if (srcX == destX - 1 && srcY >= destY && srcY <= north) {
-            if (!blockedEast(srcX, srcY, plane) && !blockedWest(srcX + 1, srcY, plane) && (blockAccessFlags & 0x8) == 0) return true; // WEST flag blocks interaction
+            if (!blockedEast(snap, srcX, srcY, plane) && !blockedWest(snap, srcX + 1, srcY, plane) && (blockAccessFlags & 0x8) == 0) return true; // WEST flag blocks interaction
         }
         // East of rectangle: need west edge from src unblocked
         if (srcX == east + 1 && srcY >= destY && srcY <= north) {
-            if (!blockedWest(srcX, srcY, plane) && !blockedEast(srcX - 1, srcY, plane) && (blockAccessFlags & 0x2) == 0) return true; // EAST flag
+            if (!blockedWest(snap, srcX, srcY, plane) && !blockedEast(snap, srcX - 1, srcY, plane) && (blockAccessFlags & 0x2) == 0) return true; // EAST flag
         }
         // South of rectangle: need north edge from src unblocked
         if (srcY + 1 == destY && srcX >= destX && srcX <= east) {
-            if (!blockedNorth(srcX, srcY, plane) && !blockedSouth(srcX, srcY + 1, plane) && (blockAccessFlags & 0x4) == 0) return true; // SOUTH flag
+            if (!blockedNorth(snap, srcX, srcY, plane) && !blockedSouth(snap, srcX, srcY + 1, plane) && (blockAccessFlags & 0x4) == 0) return true; // SOUTH flag
         }
         // North of rectangle: need south edge from src unblocked
         if (srcY == north + 1 && srcX >= destX && srcX <= east) {
-            if (!blockedSouth(srcX, srcY, plane) && !blockedNorth(srcX, srcY - 1, plane) && (blockAccessFlags & 0x1) == 0) return true; // NORTH flag
+            if (!blockedSouth(snap, srcX, srcY, plane) && !blockedNorth(snap, srcX, srcY - 1, plane) && (blockAccessFlags & 0x1) == 0) return true; // NORTH flag
         }
         return false;
     }
@@ -110,6 +469,16 @@ final class IllumineReach {
         return new TargetInfo(base.getX(), base.getY(), base.getPlane(), area.getWidth(), area.getHeight(), exclusive, 0);
     }
 
+    static final class Approach {
+        final WorldPoint tile;
+        final int pathLength; // steps from the flood origin to tile
+
+        Approach(WorldPoint tile, int pathLength) {
+            this.tile = tile;
+            this.pathLength = pathLength;
+        }
+    }
+
     static final class TargetInfo {
         final int destX;
         final int destY;
@@ -118,8 +487,13 @@ final class IllumineReach {
         final int length;
         final boolean exclusive; // true for actors
         final int blockAccessFlags; // 4-bit NESW; 0 for now
+        final SearchMode mode;
 
         TargetInfo(int destX, int destY, int plane, int width, int length, boolean exclusive, int blockAccessFlags) {
+            this(destX, destY, plane, width, length, exclusive, blockAccessFlags, SearchMode.BFS);
+        }
+
+        TargetInfo(int destX, int destY, int plane, int width, int length, boolean exclusive, int blockAccessFlags, SearchMode mode) {
             this.destX = destX;
             this.destY = destY;
             this.plane = plane;
@@ -127,40 +501,39 @@ final class IllumineReach {
             this.length = length;
             this.exclusive = exclusive;
             this.blockAccessFlags = blockAccessFlags;
+            this.mode = mode == null ? SearchMode.BFS : mode;
+        }
+
+        TargetInfo withMode(SearchMode mode) {
+            return new TargetInfo(destX, destY, plane, width, length, exclusive, blockAccessFlags, mode);
         }
     }
 
-    // ---- RuneLite collision flag helpers (source tile only) ----
+    // ---- RuneLite collision flag helpers (source tile only, read from the tick snapshot) ----
     static int tileFlags(int worldX, int worldY, int plane) {
-        Client client = Static.getClient();
-        WorldView wv = client.getTopLevelWorldView();
-        if (wv == null) return 0;
-        CollisionData[] maps = wv.getCollisionMaps();
-        if (maps == null || plane < 0 || plane >= maps.length || maps[plane] == null) return 0;
-        LocalPoint lp = LocalPoint.fromWorld(wv, worldX, worldY);
-        if (lp == null) return 0;
-        int sx = lp.getSceneX();
-        int sy = lp.getSceneY();
-        int[][] flags = maps[plane].getFlags();
-        if (sx < 0 || sy < 0 || sx >= flags.length || sy >= flags[sx].length) return 0;
-        return flags[sx][sy];
+        return tileFlags(LIVE, worldX, worldY, plane);
+    }
+
+    static int tileFlags(CollisionSource source, int worldX, int worldY, int plane) {
+        CollisionSnapshot snap = source.snapshot();
+        return snap == null ? 0 : snap.flags(worldX, worldY, plane);
     }
 
-    static boolean blockedEast(int worldX, int worldY, int plane) {
-        return (tileFlags(worldX, worldY, plane) & CollisionDataFlag.BLOCK_MOVEMENT_EAST) != 0;
+    static boolean blockedEast(CollisionSnapshot snap, int worldX, int worldY, int plane) {
+        return (snap.flags(worldX, worldY, plane) & CollisionDataFlag.BLOCK_MOVEMENT_EAST) != 0;
     }
-    static boolean blockedWest(int worldX, int worldY, int plane) {
-        return (tileFlags(worldX, worldY, plane) & CollisionDataFlag.BLOCK_MOVEMENT_WEST) != 0;
+    static boolean blockedWest(CollisionSnapshot snap, int worldX, int worldY, int plane) {
+        return (snap.flags(worldX, worldY, plane) & CollisionDataFlag.BLOCK_MOVEMENT_WEST) != 0;
     }
-    static boolean blockedNorth(int worldX, int worldY, int plane) {
-        return (tileFlags(worldX, worldY, plane) & CollisionDataFlag.BLOCK_MOVEMENT_NORTH) != 0;
+    static boolean blockedNorth(CollisionSnapshot snap, int worldX, int worldY, int plane) {
+        return (snap.flags(worldX, worldY, plane) & CollisionDataFlag.BLOCK_MOVEMENT_NORTH) != 0;
     }
-    static boolean blockedSouth(int worldX, int worldY, int plane) {
-        return (tileFlags(worldX, worldY, plane) & CollisionDataFlag.BLOCK_MOVEMENT_SOUTH) != 0;
+    static boolean blockedSouth(CollisionSnapshot snap, int worldX, int worldY, int plane) {
+        return (snap.flags(worldX, worldY, plane) & CollisionDataFlag.BLOCK_MOVEMENT_SOUTH) != 0;
     }
 
-    static boolean notFull(int worldX, int worldY, int plane) {
-        return (tileFlags(worldX, worldY, plane) & CollisionDataFlag.BLOCK_MOVEMENT_FULL) == 0;
+    static boolean notFull(CollisionSnapshot snap, int worldX, int worldY, int plane) {
+        return (snap.flags(worldX, worldY, plane) & CollisionDataFlag.BLOCK_MOVEMENT_FULL) == 0;
     }
 
     // ---- Approach candidate generation (ring adjacency) ----
@@ -190,12 +563,45 @@ final class IllumineReach {
     }
 
     static boolean isValidApproachForArea(WorldArea area, WorldPoint cand, int blockAccessFlags) {
+        return isValidApproachForArea(LIVE, area, cand, blockAccessFlags);
+    }
+
+    static boolean isValidApproachForArea(CollisionSource source, WorldArea area, WorldPoint cand, int blockAccessFlags) {
         WorldPoint base = area.toWorldPoint();
         int dx = base.getX();
         int dy = base.getY();
         int plane = base.getPlane();
         int width = area.getWidth();
         int length = area.getHeight();
-        return reachRectangle1(plane, cand.getX(), cand.getY(), dx, dy, width, length, blockAccessFlags);
+        CollisionSnapshot snap = source.snapshot();
+        if (snap == null) return false;
+        return reachRectangle1(snap, plane, cand.getX(), cand.getY(), dx, dy, width, length, blockAccessFlags);
+    }
+
+    /**
+     * Nearest (2D) ring tile around the area that is both a valid approach edge and walkable, checked in one pass
+     * against the hybrid snapshot (scene flags, global map beyond the scene). Null if there is none.
+     */
+    static WorldPoint bestWalkableApproach(WorldArea area, WorldPoint from) {
+        return bestWalkableApproach(LIVE, area, from);
+    }
+
+    static WorldPoint bestWalkableApproach(CollisionSource source, WorldArea area, WorldPoint from) {
+        CollisionSnapshot snap = source.snapshot();
+        if (snap == null) return null;
+        WorldPoint base = area.toWorldPoint();
+        int plane = base.getPlane();
+        WorldPoint best = null;
+        int bestDist = Integer.MAX_VALUE;
+        for (WorldPoint c : approachCandidates(area)) {
+            if (!notFull(snap, c.getX(), c.getY(), plane)) continue;
+            if (!reachRectangle1(snap, plane, c.getX(), c.getY(), base.getX(), base.getY(), area.getWidth(), area.getHeight(), 0)) continue;
+            int d = c.distanceTo2D(from);
+            if (d < bestDist) {
+                bestDist = d;
+                best = c;
+            }
+        }
+        return best;
     }
 }
@@ -0,0 +1,216 @@
+package com.illumine.woodcutter;
+
+import net.runelite.api.Constants;
+
+import java.util.Arrays;
+
+/**
+ * Reusable, allocation-free search state for {@link IllumineReach}.
+ * Nodes are flat grid indices ((plane * SIZE + gridX) * SIZE + gridY) over the search window, which is the loaded
+ * scene plus a {@link #PADDING}-tile ring on every side. The open set is an int ring buffer
+ * and the closed set is a generation-stamped array, so starting a new search is O(1). The BFS depth of every
+ * visited node is kept alongside, valid for as long as the node's stamp matches the current generation.
+ * The same generation also stamps the A* closed set and the backward half of a bidirectional search.
+ */
+final class ReachEngine {
+    // Tiles searched beyond each scene edge; their flags come from the pathfinder's global collision map
+    static final int PADDING = 32;
+    static final int SIZE = Constants.SCENE_SIZE + 2 * PADDING;
+    static final int PLANES = Constants.MAX_Z;
+    static final int PLANE_TILES = SIZE * SIZE;
+    static final int TILES = PLANES * PLANE_TILES;
+
+    // Each tile is enqueued at most once and a search never leaves its plane, so one grid plane always fits
+    private static final int QUEUE_CAPACITY = Integer.highestOneBit(PLANE_TILES - 1) << 1;
+    private static final int QUEUE_MASK = QUEUE_CAPACITY - 1;
+    // A node is closed once and pushes at most four neighbours, stale duplicates included
+    private static final int HEAP_CAPACITY = 4 * PLANE_TILES + 1;
+
+    private final int[] queue = new int[QUEUE_CAPACITY];
+    private final int[] visited = new int[TILES];
+    private final int[] distance = new int[TILES];
+    private int generation = 0;
+    private int head = 0;
+    private int tail = 0;
+
+    private final int[] heapKeys = new int[HEAP_CAPACITY];
+    private final int[] heapNodes = new int[HEAP_CAPACITY];
+    private final int[] closed = new int[TILES];
+    private int heapSize = 0;
+
+    private final int[] backQueue = new int[QUEUE_CAPACITY];
+    private final int[] backVisited = new int[TILES];
+    private final int[] backDistance = new int[TILES];
+    private final int[] backOrigin = new int[TILES];
+    private int backHead = 0;
+    private int backTail = 0;
+
+    private int expanded = 0;
+
+    /** Clears the open and closed sets for a new search. */
+    void begin() {
+        head = 0;
+        tail = 0;
+        heapSize = 0;
+        backHead = 0;
+        backTail = 0;
+        if (++generation == 0) {
+            Arrays.fill(visited, 0);
+            Arrays.fill(closed, 0);
+            Arrays.fill(backVisited, 0);
+            generation = 1;
+        }
+    }
+
+    /** Marks the node visited and enqueues it; returns false if it was already seen this search. */
+    boolean offer(int node) {
+        return offer(node, 0);
+    }
+
+    /** As {@link #offer(int)}, recording the node's path length from the search root. */
+    boolean offer(int node, int pathLength) {
+        if (visited[node] == generation) return false;
+        visited[node] = generation;
+        distance[node] = pathLength;
+        queue[tail] = node;
+        tail = (tail + 1) & QUEUE_MASK;
+        return true;
+    }
+
+    boolean isEmpty() {
+        return head == tail;
+    }
+
+    int poll() {
+        int node = queue[head];
+        head = (head + 1) & QUEUE_MASK;
+        return node;
+    }
+
+    int size() {
+        return (tail - head) & QUEUE_MASK;
+    }
+
+    boolean isVisited(int node) {
+        return visited[node] == generation;
+    }
+
+    /** Path length recorded when the node was offered; only meaningful for nodes visited this search. */
+    int distance(int node) {
+        return distance[node];
+    }
+
+    /** Nodes expanded by the last search run on this engine. */
+    int expanded() {
+        return expanded;
+    }
+
+    void expanded(int nodes) {
+        expanded = nodes;
+    }
+
+    // ---- A*: lazy-deletion binary heap keyed by priority ----
+
+    /** Records a better path length for the node and pushes it; false if the known path is as short. */
+    boolean relax(int node, int pathLength, int key) {
+        if (visited[node] == generation && distance[node] <= pathLength) return false;
+        visited[node] = generation;
+        distance[node] = pathLength;
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapKeys[parent] <= key) break;
+            heapKeys[i] = heapKeys[parent];
+            heapNodes[i] = heapNodes[parent];
+            i = parent;
+        }
+        heapKeys[i] = key;
+        heapNodes[i] = node;
+        return true;
+    }
+
+    boolean heapEmpty() {
+        return heapSize == 0;
+    }
+
+    int pollMin() {
+        int node = heapNodes[0];
+        int lastKey = heapKeys[--heapSize];
+        int lastNode = heapNodes[heapSize];
+        int i = 0;
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) child++;
+            if (lastKey <= heapKeys[child]) break;
+            heapKeys[i] = heapKeys[child];
+            heapNodes[i] = heapNodes[child];
+            i = child;
+        }
+        heapKeys[i] = lastKey;
+        heapNodes[i] = lastNode;
+        return node;
+    }
+
+    /** Moves the node to the closed set; false if it was already closed (a stale heap entry). */
+    boolean close(int node) {
+        if (closed[node] == generation) return false;
+        closed[node] = generation;
+        return true;
+    }
+
+    // ---- Backward half of a bidirectional search, rooted at the target's approach tiles ----
+
+    boolean offerBackward(int node, int pathLength, int origin) {
+        if (backVisited[node] == generation) return false;
+        backVisited[node] = generation;
+        backDistance[node] = pathLength;
+        backOrigin[node] = origin;
+        backQueue[backTail] = node;
+        backTail = (backTail + 1) & QUEUE_MASK;
+        return true;
+    }
+
+    int pollBackward() {
+        int node = backQueue[backHead];
+        backHead = (backHead + 1) & QUEUE_MASK;
+        return node;
+    }
+
+    int backwardSize() {
+        return (backTail - backHead) & QUEUE_MASK;
+    }
+
+    boolean isVisitedBackward(int node) {
+        return backVisited[node] == generation;
+    }
+
+    int backwardDistance(int node) {
+        return backDistance[node];
+    }
+
+    /** Approach tile the backward search reached this node from. */
+    int backwardOrigin(int node) {
+        return backOrigin[node];
+    }
+
+    static boolean inGrid(int gridX, int gridY, int plane) {
+        return gridX >= 0 && gridY >= 0 && gridX < SIZE && gridY < SIZE && plane >= 0 && plane < PLANES;
+    }
+
+    static int index(int gridX, int gridY, int plane) {
+        return (plane * SIZE + gridX) * SIZE + gridY;
+    }
+
+    static int gridX(int node) {
+        return (node / SIZE) % SIZE;
+    }
+
+    static int gridY(int node) {
+        return node % SIZE;
+    }
+
+    static int plane(int node) {
+        return node / PLANE_TILES;
+    }
+}
@@ -0,0 +1,129 @@
+package com.illumine.woodcutter;
+
+import net.runelite.api.CollisionDataFlag;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Connected-component labels for every open tile of the search grid. Two neighbouring tiles share a region when movement is
+ * possible between them in at least one direction, so different regions are a sound proof of unreachability.
+ * A new scene is labelled with one flood fill pass; a collision change inside the same scene only clears and
+ * re-floods the regions that touch the changed tiles.
+ */
+final class SceneRegions {
+    static final int NONE = 0;
+
+    private final int[] labels = new int[ReachEngine.TILES];
+    private final int[] stack = new int[ReachEngine.PLANE_TILES];
+    private CollisionSnapshot snap = null;
+    private int nextLabel = 1;
+
+    synchronized void update(CollisionSnapshot next) {
+        if (next == null || next == snap) return;
+        CollisionSnapshot prev = snap;
+        snap = next;
+        if (prev == null || prev.baseX() != next.baseX() || prev.baseY() != next.baseY()) {
+            relabelAll();
+        } else {
+            relabelChanged(prev);
+        }
+    }
+
+    /** Region id of a world tile, or {@link #NONE} if blocked, outside the grid or not labelled yet. */
+    synchronized int regionOf(int worldX, int worldY, int plane) {
+        if (snap == null || !snap.contains(worldX, worldY, plane)) return NONE;
+        return labels[snap.index(worldX, worldY, plane)];
+    }
+
+    /**
+     * False only when no tile that could satisfy the reach check shares the player's region, i.e. the target is
+     * provably unreachable. Unknown cases (no labels, player on an unlabelled tile) answer true.
+     */
+    synchronized boolean mayReach(WorldPoint from, IllumineReach.TargetInfo t) {
+        if (from.getPlane() != t.plane) return false;
+        int region = regionOf(from.getX(), from.getY(), from.getPlane());
+        if (region == NONE) return true;
+        for (int x = t.destX - 1; x <= t.destX + t.width; x++) {
+            for (int y = t.destY - 1; y <= t.destY + t.length; y++) {
+                if (regionOf(x, y, t.plane) == region) return true;
+            }
+        }
+        return false;
+    }
+
+    /** Brings the labels up to {@code next} and answers {@link #mayReach(WorldPoint, IllumineReach.TargetInfo)} atomically. */
+    synchronized boolean mayReach(CollisionSnapshot next, WorldPoint from, IllumineReach.TargetInfo t) {
+        update(next);
+        return mayReach(from, t);
+    }
+
+    private void relabelAll() {
+        Arrays.fill(labels, NONE);
+        nextLabel = 1;
+        floodUnlabelled();
+    }
+
+    private void relabelChanged(CollisionSnapshot prev) {
+        BitSet affected = new BitSet();
+        boolean changed = false;
+        for (int i = 0; i < ReachEngine.TILES; i++) {
+            if (prev.flagsAt(i) == snap.flagsAt(i)) continue;
+            changed = true;
+            markAffected(affected, i);
+        }
+        if (!changed) return;
+
+        for (int i = 0; i < ReachEngine.TILES; i++) {
+            if (labels[i] != NONE && affected.get(labels[i])) labels[i] = NONE;
+        }
+        // Every open tile is labelled outside the cleared regions, so this only floods what was affected
+        floodUnlabelled();
+    }
+
+    private void markAffected(BitSet affected, int i) {
+        int sx = ReachEngine.gridX(i);
+        int sy = ReachEngine.gridY(i);
+        affected.set(labels[i]);
+        if (sx > 0) affected.set(labels[i - ReachEngine.SIZE]);
+        if (sx < ReachEngine.SIZE - 1) affected.set(labels[i + ReachEngine.SIZE]);
+        if (sy > 0) affected.set(labels[i - 1]);
+        if (sy < ReachEngine.SIZE - 1) affected.set(labels[i + 1]);
+    }
+
+    private void floodUnlabelled() {
+        for (int i = 0; i < ReachEngine.TILES; i++) {
+            if (labels[i] == NONE && open(i)) flood(i, nextLabel++);
+        }
+    }
+
+    private void flood(int start, int label) {
+        int top = 0;
+        labels[start] = label;
+        stack[top++] = start;
+        while (top > 0) {
+            int cur = stack[--top];
+            int sx = ReachEngine.gridX(cur);
+            int sy = ReachEngine.gridY(cur);
+            int f = snap.flagsAt(cur);
+            if (sx > 0) top = join(cur, cur - ReachEngine.SIZE, f, CollisionDataFlag.BLOCK_MOVEMENT_WEST, CollisionDataFlag.BLOCK_MOVEMENT_EAST, label, top);
+            if (sx < ReachEngine.SIZE - 1) top = join(cur, cur + ReachEngine.SIZE, f, CollisionDataFlag.BLOCK_MOVEMENT_EAST, CollisionDataFlag.BLOCK_MOVEMENT_WEST, label, top);
+            if (sy > 0) top = join(cur, cur - 1, f, CollisionDataFlag.BLOCK_MOVEMENT_SOUTH, CollisionDataFlag.BLOCK_MOVEMENT_NORTH, label, top);
+            if (sy < ReachEngine.SIZE - 1) top = join(cur, cur + 1, f, CollisionDataFlag.BLOCK_MOVEMENT_NORTH, CollisionDataFlag.BLOCK_MOVEMENT_SOUTH, label, top);
+        }
+    }
+
+    private int join(int cur, int next, int curFlags, int outFlag, int backFlag, int label, int top) {
+        if (labels[next] != NONE || !open(next)) return top;
+        // Undirected: either direction being passable keeps both tiles in one region
+        if ((curFlags & outFlag) != 0 && (snap.flagsAt(next) & backFlag) != 0) return top;
+        labels[next] = label;
+        stack[top] = next;
+        return top + 1;
+    }
+
+    private boolean open(int i) {
+        return (snap.flagsAt(i) & CollisionDataFlag.BLOCK_MOVEMENT_FULL) == 0;
+    }
+}
@@ -0,0 +1,7 @@
+package com.illumine.woodcutter;
+
+public enum SearchMode {
+    BFS,
+    A_STAR,
+    BIDIRECTIONAL
+}
@@ -9,6 +9,7 @@ import java.awt.Insets;
 import javax.inject.Inject;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import com.illumine.util.UiRefreshScheduler;
 import com.tonic.Logger;
 import com.tonic.Static;
 import com.tonic.model.ui.components.FancyButton;
@@ -25,9 +26,9 @@ public class SidePanel extends PluginPanel
     private final JLabel timerLabel;
     private final JButton startStopButton;
     private final FancyDropdown<DropStrategy> strategyDropdown;
-    private final Timer timer;
+    private final UiRefreshScheduler.Registration refreshRegistration;
     private long startTime;
-    private boolean isRunning = false;
+    private volatile boolean isRunning = false;
 
     @Inject
     public SidePanel(ExamplePluginConfig config)
@@ -76,7 +77,7 @@ public class SidePanel extends PluginPanel
         add(startStopButton, c);
         c.gridy++;
 
-        timer = new Timer(100, e -> updateTimerDisplay());
+        refreshRegistration = UiRefreshScheduler.shared().register(this, this::updateTimerDisplay);
 
         c.weighty = 1;
         add(new JPanel(), c);
@@ -92,15 +93,13 @@ public class SidePanel extends PluginPanel
         }
         if (isRunning)
         {
-            isRunning = false;
-            timer.stop();
-            startStopButton.setText("Start");
+            stopTimer();
         }
         else
         {
             isRunning = true;
             startTime = System.currentTimeMillis();
-            timer.start();
+            updateTimerDisplay();
             startStopButton.setText("Stop");
         }
     }
@@ -112,19 +111,42 @@ public class SidePanel extends PluginPanel
             return;
         }
 
+        // Fallback for owners that do not forward game state changes
         Client client = Static.getClient();
         if(client.getGameState() != GameState.LOGGED_IN && client.getGameState() != GameState.LOADING)
         {
-            isRunning = false;
-            timer.stop();
-            startStopButton.setText("Start");
+            stopTimer();
             return;
         }
 
+        // Runs on the EDT via the shared refresh, and only while this panel is showing
         long elapsedMillis = System.currentTimeMillis() - startTime;
-        String formattedTime = formatTime(elapsedMillis);
+        timerLabel.setText(formatTime(elapsedMillis));
+    }
 
-        SwingUtilities.invokeLater(() -> timerLabel.setText(formattedTime));
+    /**
+     * Forward GameStateChanged here: resets the timer on logout whether or not the panel is showing, since the
+     * refresh callback only runs while it is.
+     */
+    public void onGameStateChanged(GameState state)
+    {
+        if (state == GameState.LOGGED_IN || state == GameState.LOADING)
+        {
+            return;
+        }
+        SwingUtilities.invokeLater(() ->
+        {
+            if (isRunning)
+            {
+                stopTimer();
+            }
+        });
+    }
+
+    private void stopTimer()
+    {
+        isRunning = false;
+        startStopButton.setText("Start");
     }
 
     private String formatTime(long millis)
@@ -151,9 +173,6 @@ public class SidePanel extends PluginPanel
 
     public void shutdown()
     {
-        if (timer != null)
-        {
-            timer.stop();
-        }
+        refreshRegistration.close();
     }
 }
@@ -0,0 +1,196 @@
+package com.illumine.woodcutter;
+
+import com.illumine.util.SpatialGrid;
+import net.runelite.api.Client;
+import net.runelite.api.GameObject;
+import net.runelite.api.ObjectComposition;
+import net.runelite.api.Point;
+import net.runelite.api.Scene;
+import net.runelite.api.Tile;
+import net.runelite.api.TileObject;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.WorldArea;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tile objects of the loaded scene bucketed by lowercase name and by id, kept current from the spawn/despawn
+ * events (game, wall, decorative and ground objects) and rebuilt from the scene on load. Each name also has its own
+ * {@link SpatialGrid}: nearest lookups resolve the matching names first and ring-search only their grids, and list
+ * lookups only walk the distinct names, never every object.
+ * Written on the client thread, read from the loop.
+ */
+final class TileObjectIndex {
+    /** One indexed object with what the reach logger needs, resolved once at spawn. */
+    static final class Entry {
+        final TileObject object;
+        final int id;
+        final String name; // lowercase
+        final WorldPoint location;
+        final WorldArea area;
+
+        Entry(TileObject object, int id, String name, WorldPoint location, WorldArea area) {
+            this.object = object;
+            this.id = id;
+            this.name = name;
+            this.location = location;
+            this.area = area;
+        }
+    }
+
+    private final Map<String, List<Entry>> byName = new HashMap<>();
+    private final Map<Integer, List<Entry>> byId = new HashMap<>();
+    private final Map<TileObject, Entry> entries = new HashMap<>();
+    private final Map<String, SpatialGrid<Entry>> gridByName = new HashMap<>();
+    private boolean stale = true;
+
+    /** Drops everything; the scene is about to be rebuilt. */
+    synchronized void clear() {
+        byName.clear();
+        byId.clear();
+        entries.clear();
+        gridByName.clear();
+    }
+
+    /** Marks the index for a rebuild on the next {@link #rebuildIfStale} (e.g. the plugin started mid-session). */
+    synchronized void invalidate() {
+        stale = true;
+    }
+
+    /** Client thread only. */
+    void rebuildIfStale(Client client) {
+        synchronized (this) {
+            if (!stale) return;
+        }
+        rebuild(client);
+    }
+
+    /** Re-indexes every object in the top-level scene. Client thread only. */
+    synchronized void rebuild(Client client) {
+        clear();
+        WorldView wv = client == null ? null : client.getTopLevelWorldView();
+        Scene scene = wv == null ? null : wv.getScene();
+        if (scene == null) return;
+        stale = false;
+        Tile[][][] tiles = scene.getTiles();
+        if (tiles == null) return;
+        for (Tile[][] plane : tiles) {
+            if (plane == null) continue;
+            for (Tile[] column : plane) {
+                if (column == null) continue;
+                for (Tile tile : column) {
+                    if (tile == null) continue;
+                    GameObject[] objects = tile.getGameObjects();
+                    if (objects != null) {
+                        // Large objects sit on every tile they cover; add() ignores the repeats
+                        for (GameObject obj : objects) add(client, obj);
+                    }
+                    add(client, tile.getWallObject());
+                    add(client, tile.getDecorativeObject());
+                    add(client, tile.getGroundObject());
+                }
+            }
+        }
+    }
+
+    /** Client thread only: the object definition is read here, once per spawn. */
+    synchronized void add(Client client, TileObject obj) {
+        if (obj == null || entries.containsKey(obj)) return;
+        String name = nameOf(client, obj.getId());
+        if (name == null) return;
+        Entry e = new Entry(obj, obj.getId(), name, obj.getWorldLocation(), areaOf(client, obj));
+        entries.put(obj, e);
+        byName.computeIfAbsent(name, k -> new ArrayList<>()).add(e);
+        byId.computeIfAbsent(e.id, k -> new ArrayList<>()).add(e);
+        gridByName.computeIfAbsent(name, k -> new SpatialGrid<>()).put(e, e.location);
+    }
+
+    synchronized void remove(TileObject obj) {
+        if (obj == null) return;
+        Entry e = entries.remove(obj);
+        if (e == null) return;
+        removeFrom(byName, e.name, e);
+        removeFrom(byId, e.id, e);
+        SpatialGrid<Entry> grid = gridByName.get(e.name);
+        if (grid != null) {
+            grid.remove(e);
+            if (grid.size() == 0) gridByName.remove(e.name);
+        }
+    }
+
+    /** Nearest object whose name contains {@code needle} (case-insensitive), or null. */
+    synchronized Entry nearestNameContains(String needle, WorldPoint from) {
+        String key = needle.toLowerCase(Locale.ROOT);
+        Entry best = null;
+        int bestDist = Integer.MAX_VALUE;
+        // Only the grids of matching names are searched; an absent name costs one pass over the distinct names
+        for (Map.Entry<String, SpatialGrid<Entry>> bucket : gridByName.entrySet()) {
+            if (!bucket.getKey().contains(key)) continue;
+            Entry e = bucket.getValue().nearest(from, null);
+            if (e == null) continue;
+            int d = e.location.distanceTo(from);
+            if (d < bestDist) {
+                best = e;
+                bestDist = d;
+            }
+        }
+        return best;
+    }
+
+    /** Every object whose name contains {@code needle} (case-insensitive); a copy safe to keep. */
+    synchronized List<Entry> nameContains(String needle) {
+        String key = needle.toLowerCase(Locale.ROOT);
+        ArrayList<Entry> out = new ArrayList<>();
+        for (Map.Entry<String, List<Entry>> bucket : byName.entrySet()) {
+            if (bucket.getKey().contains(key)) out.addAll(bucket.getValue());
+        }
+        return out;
+    }
+
+    synchronized List<Entry> byId(int id) {
+        List<Entry> bucket = byId.get(id);
+        return bucket == null ? Collections.emptyList() : new ArrayList<>(bucket);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static <K> void removeFrom(Map<K, List<Entry>> map, K key, Entry e) {
+        List<Entry> bucket = map.get(key);
+        if (bucket == null) return;
+        bucket.remove(e);
+        if (bucket.isEmpty()) map.remove(key);
+    }
+
+    private static WorldArea areaOf(Client client, TileObject obj) {
+        if (obj instanceof GameObject) {
+            GameObject go = (GameObject) obj;
+            Point min = go.getSceneMinLocation();
+            WorldView wv = client.getTopLevelWorldView();
+            if (min != null && wv != null) {
+                WorldPoint sw = WorldPoint.fromScene(wv, min.getX(), min.getY(), go.getPlane());
+                return new WorldArea(sw, Math.max(1, go.sizeX()), Math.max(1, go.sizeY()));
+            }
+        }
+        return new WorldArea(obj.getWorldLocation(), 1, 1);
+    }
+
+    private static String nameOf(Client client, int id) {
+        ObjectComposition def = client.getObjectDefinition(id);
+        if (def == null) return null;
+        if (def.getImpostorIds() != null) {
+            ObjectComposition impostor = def.getImpostor();
+            if (impostor != null) def = impostor;
+        }
+        String name = def.getName();
+        if (name == null || name.isEmpty() || "null".equals(name)) return null;
+        return name.toLowerCase(Locale.ROOT);
+    }
+}